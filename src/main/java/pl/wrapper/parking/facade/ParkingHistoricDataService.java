@@ -5,6 +5,7 @@ import java.util.List;
 import org.springframework.lang.Nullable;
 import pl.wrapper.parking.facade.dto.historicData.HistoricDayParkingData;
 import pl.wrapper.parking.facade.dto.historicData.HistoricPeriodParkingData;
+import pl.wrapper.parking.infrastructure.util.DataVersion;
 
 public interface ParkingHistoricDataService {
     List<HistoricDayParkingData> getDataForDay(LocalDate forDate);
@@ -14,4 +15,6 @@ public interface ParkingHistoricDataService {
     HistoricPeriodParkingData getDataForPeriod(LocalDate fromDate, @Nullable LocalDate toDate, int parkingId);
 
     List<HistoricPeriodParkingData> getDataForPeriod(LocalDate fromDate, @Nullable LocalDate toDate);
+
+    DataVersion getDataVersion();
 }
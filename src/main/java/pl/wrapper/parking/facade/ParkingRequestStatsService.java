@@ -2,6 +2,7 @@ package pl.wrapper.parking.facade;
 
 import java.util.List;
 import java.util.Map;
+import pl.wrapper.parking.facade.dto.stats.request.EndpointLatencyStats;
 import pl.wrapper.parking.facade.dto.stats.request.EndpointStats;
 
 public interface ParkingRequestStatsService {
@@ -12,4 +13,6 @@ public interface ParkingRequestStatsService {
     List<Map.Entry<String, Double>> getRequestPeakTimes();
 
     Map<String, Double> getDailyRequestStats();
+
+    Map<String, EndpointLatencyStats> getLatencyStats();
 }
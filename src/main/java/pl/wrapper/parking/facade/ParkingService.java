@@ -2,6 +2,7 @@ package pl.wrapper.parking.facade;
 
 import java.util.List;
 import org.springframework.lang.Nullable;
+import pl.wrapper.parking.facade.dto.main.NearbyParking;
 import pl.wrapper.parking.infrastructure.error.Result;
 import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
 
@@ -13,6 +14,10 @@ public interface ParkingService {
 
     Result<ParkingResponse> getClosestParking(String address);
 
+    Result<List<NearbyParking>> getNearestParkings(String address, int count);
+
+    Result<List<NearbyParking>> getParkingsWithinRadius(String address, double radiusKm);
+
     Result<ParkingResponse> getByName(String name, @Nullable Boolean opened);
 
     Result<ParkingResponse> getById(Integer id, @Nullable Boolean opened);
@@ -4,6 +4,7 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.List;
 import org.springframework.lang.Nullable;
+import pl.wrapper.parking.facade.dto.stats.parking.AveragingMode;
 import pl.wrapper.parking.facade.dto.stats.parking.ParkingStatsResponse;
 import pl.wrapper.parking.facade.dto.stats.parking.daily.CollectiveDailyParkingStats;
 import pl.wrapper.parking.facade.dto.stats.parking.daily.DailyParkingStatsResponse;
@@ -12,14 +13,39 @@ import pl.wrapper.parking.facade.dto.stats.parking.weekly.WeeklyParkingStatsResp
 
 public interface ParkingStatsService {
     List<ParkingStatsResponse> getParkingStats(
-            @Nullable List<Integer> parkingIds, @Nullable DayOfWeek dayOfWeek, LocalTime time);
+            @Nullable List<Integer> parkingIds, @Nullable DayOfWeek dayOfWeek, LocalTime time, AveragingMode mode);
 
-    List<DailyParkingStatsResponse> getDailyParkingStats(@Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek);
+    List<DailyParkingStatsResponse> getDailyParkingStats(
+            @Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek, AveragingMode mode);
 
-    List<WeeklyParkingStatsResponse> getWeeklyParkingStats(@Nullable List<Integer> parkingIds);
+    List<WeeklyParkingStatsResponse> getWeeklyParkingStats(@Nullable List<Integer> parkingIds, AveragingMode mode);
 
     List<CollectiveDailyParkingStats> getCollectiveDailyParkingStats(
-            @Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek);
+            @Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek, AveragingMode mode);
 
-    List<CollectiveWeeklyParkingStats> getCollectiveWeeklyParkingStats(@Nullable List<Integer> parkingIds);
+    List<CollectiveWeeklyParkingStats> getCollectiveWeeklyParkingStats(
+            @Nullable List<Integer> parkingIds, AveragingMode mode);
+
+    default List<ParkingStatsResponse> getParkingStats(
+            @Nullable List<Integer> parkingIds, @Nullable DayOfWeek dayOfWeek, LocalTime time) {
+        return getParkingStats(parkingIds, dayOfWeek, time, AveragingMode.CUMULATIVE);
+    }
+
+    default List<DailyParkingStatsResponse> getDailyParkingStats(
+            @Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek) {
+        return getDailyParkingStats(parkingIds, dayOfWeek, AveragingMode.CUMULATIVE);
+    }
+
+    default List<WeeklyParkingStatsResponse> getWeeklyParkingStats(@Nullable List<Integer> parkingIds) {
+        return getWeeklyParkingStats(parkingIds, AveragingMode.CUMULATIVE);
+    }
+
+    default List<CollectiveDailyParkingStats> getCollectiveDailyParkingStats(
+            @Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek) {
+        return getCollectiveDailyParkingStats(parkingIds, dayOfWeek, AveragingMode.CUMULATIVE);
+    }
+
+    default List<CollectiveWeeklyParkingStats> getCollectiveWeeklyParkingStats(@Nullable List<Integer> parkingIds) {
+        return getCollectiveWeeklyParkingStats(parkingIds, AveragingMode.CUMULATIVE);
+    }
 }
@@ -1,5 +1,7 @@
 package pl.wrapper.parking.facade.domain.historic;
 
+import static pl.wrapper.parking.infrastructure.util.DataVersion.checkNotModified;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -21,6 +23,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import pl.wrapper.parking.facade.ParkingHistoricDataService;
 import pl.wrapper.parking.facade.dto.historicData.HistoricDayParkingData;
 import pl.wrapper.parking.facade.dto.historicData.HistoricPeriodParkingData;
@@ -59,7 +62,9 @@ class ParkingHistoricController {
     @GetMapping(path = "/day/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<HistoricDayParkingData> getHistoricDataForDayAndId(
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam("forDay") LocalDate forDay,
-            @PathVariable(name = "id") @Min(1) @Max(5) Integer parkingId) {
+            @PathVariable(name = "id") @Min(1) @Max(5) Integer parkingId,
+            WebRequest webRequest) {
+        if (checkNotModified(parkingHistoricDataService.getDataVersion(), webRequest)) return null;
         HistoricDayParkingData dataForDay = parkingHistoricDataService.getDataForDay(forDay, parkingId);
         if (dataForDay == null) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(dataForDay);
@@ -91,7 +96,9 @@ class ParkingHistoricController {
             })
     @GetMapping(path = "/day", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<HistoricDayParkingData>> getHistoricDataForDay(
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam("forDay") LocalDate forDay) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam("forDay") LocalDate forDay,
+            WebRequest webRequest) {
+        if (checkNotModified(parkingHistoricDataService.getDataVersion(), webRequest)) return null;
         List<HistoricDayParkingData> dataForDay = parkingHistoricDataService.getDataForDay(forDay);
         if (dataForDay == null) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(dataForDay);
@@ -125,7 +132,9 @@ class ParkingHistoricController {
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam("fromDate") LocalDate fromDate,
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(value = "toDate", required = false)
                     LocalDate toDate,
-            @PathVariable(name = "id") @Min(1) @Max(5) Integer parkingId) {
+            @PathVariable(name = "id") @Min(1) @Max(5) Integer parkingId,
+            WebRequest webRequest) {
+        if (checkNotModified(parkingHistoricDataService.getDataVersion(), webRequest)) return null;
         HistoricPeriodParkingData dataForPeriod =
                 parkingHistoricDataService.getDataForPeriod(fromDate, toDate, parkingId);
         if (dataForPeriod == null) return ResponseEntity.notFound().build();
@@ -162,7 +171,9 @@ class ParkingHistoricController {
     public ResponseEntity<List<HistoricPeriodParkingData>> getHistoricDataForPeriod(
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam("fromDate") LocalDate fromDate,
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @RequestParam(value = "toDate", required = false)
-                    LocalDate toDate) {
+                    LocalDate toDate,
+            WebRequest webRequest) {
+        if (checkNotModified(parkingHistoricDataService.getDataVersion(), webRequest)) return null;
         List<HistoricPeriodParkingData> dataForPeriod = parkingHistoricDataService.getDataForPeriod(fromDate, toDate);
         if (dataForPeriod == null) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(dataForPeriod);
@@ -5,26 +5,30 @@ import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import pl.wrapper.parking.facade.ParkingHistoricDataService;
 import pl.wrapper.parking.facade.dto.historicData.HistoricDayData;
 import pl.wrapper.parking.facade.dto.historicData.HistoricDayParkingData;
 import pl.wrapper.parking.facade.dto.historicData.HistoricPeriodParkingData;
 import pl.wrapper.parking.facade.dto.historicData.TimestampEntry;
-import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
+import pl.wrapper.parking.infrastructure.util.DataVersion;
+import pl.wrapper.parking.pwrResponseHandler.ParkingSnapshotSink;
 import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
 
 @Service
 @Transactional(readOnly = true)
-class ParkingHistoricDataServiceImpl implements ParkingHistoricDataService {
+class ParkingHistoricDataServiceImpl implements ParkingHistoricDataService, ParkingSnapshotSink {
 
     @PersistenceContext
     private EntityManager em;
@@ -33,13 +37,13 @@ class ParkingHistoricDataServiceImpl implements ParkingHistoricDataService {
 
     private final int intervalCount;
 
-    private final PwrApiServerCaller pwrApiServerCaller;
-
     private final List<String> formattedStartTimes;
 
-    public ParkingHistoricDataServiceImpl(
-            PwrApiServerCaller pwrApiServerCaller, @Value("${historic.data-update.minutes}") Integer intervalLength) {
-        this.pwrApiServerCaller = pwrApiServerCaller;
+    private volatile DataVersion dataVersion = DataVersion.changedNow();
+
+    private LocalDateTime lastStoredInterval;
+
+    public ParkingHistoricDataServiceImpl(@Value("${historic.data-update.minutes}") Integer intervalLength) {
         this.intervalLength = intervalLength;
         intervalCount = calculateTimeframesCount(intervalLength);
         this.formattedStartTimes = getFormattedStartTimes(intervalLength, intervalCount);
@@ -75,6 +79,11 @@ class ParkingHistoricDataServiceImpl implements ParkingHistoricDataService {
         return parseTableForPeriod(fetchedData);
     }
 
+    @Override
+    public DataVersion getDataVersion() {
+        return dataVersion;
+    }
+
     List<HistoricDataEntry> fetchDataForPeriod(LocalDate fromDate, LocalDate toDate) {
         List<HistoricDataEntry> fetchedData;
         if (toDate == null) fetchedData = createFromQuery(fromDate).getResultList();
@@ -146,20 +155,42 @@ class ParkingHistoricDataServiceImpl implements ParkingHistoricDataService {
         return resultList;
     }
 
-    @Scheduled(cron = "30 */${historic.data-update.minutes} * * * *")
+    /* Ingest ticks come more often than intervals; an interval keeps the first snapshot taken in it. */
+    @Override
     @Transactional
-    void storeNewData() {
-        List<ParkingResponse> fetchedData = pwrApiServerCaller.fetchParkingData();
-        LocalDate today = LocalDate.now();
+    public synchronized void onSnapshot(ParkingSnapshot snapshot) {
+        LocalDateTime fetchedAt = snapshot.fetchedAt();
+        int currentIntervalIndex = mapTimeToTimeframeIndex(fetchedAt.toLocalTime(), intervalLength);
+        LocalDateTime interval =
+                fetchedAt.toLocalDate().atStartOfDay().plusMinutes((long) currentIntervalIndex * intervalLength);
+        if (interval.equals(lastStoredInterval)) return;
+        lastStoredInterval = interval;
+        storeNewData(snapshot.parkings(), fetchedAt.toLocalDate(), currentIntervalIndex);
+    }
+
+    private void storeNewData(List<ParkingResponse> fetchedData, LocalDate today, int currentIntervalIndex) {
         HistoricDataEntry entryForToday = em.find(HistoricDataEntry.class, today);
         if (entryForToday == null) {
             entryForToday = new HistoricDataEntry(fetchedData.size(), intervalCount, today);
             em.persist(entryForToday);
         }
-        int currentIntervalIndex = mapTimeToTimeframeIndex(LocalTime.now(), intervalLength);
         for (ParkingResponse parkingData : fetchedData) {
             entryForToday.addValue(parkingData.parkingId(), currentIntervalIndex, parkingData.freeSpots());
         }
+        markChanged();
+    }
+
+    private void markChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dataVersion = DataVersion.changedNow();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dataVersion = DataVersion.changedNow();
+            }
+        });
     }
 
     private static int calculateTimeframesCount(int timeframeLengthInMinutes) {
@@ -1,6 +1,8 @@
 package pl.wrapper.parking.facade.domain.main;
 
 import static pl.wrapper.parking.infrastructure.error.HandleResult.handleResult;
+import static pl.wrapper.parking.infrastructure.util.DataVersion.checkNotModified;
+import static pl.wrapper.parking.infrastructure.util.PrettyPrintUtils.isPrettyPrintRequested;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,18 +14,29 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import pl.wrapper.parking.facade.ParkingService;
+import pl.wrapper.parking.facade.domain.main.ParkingJsonSnapshot.RenderedJson;
+import pl.wrapper.parking.facade.dto.main.NearbyParking;
 import pl.wrapper.parking.infrastructure.error.ErrorWrapper;
+import pl.wrapper.parking.infrastructure.error.Result;
+import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
 import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
 
 @RestController
@@ -34,6 +47,8 @@ import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
         description = "Endpoints for managing parking-related operations with up-to-date information")
 class ParkingController {
     private final ParkingService parkingService;
+    private final ParkingJsonSnapshot parkingJsonSnapshot;
+    private final PwrApiServerCaller pwrApiServerCaller;
 
     @Operation(summary = "Get list of parking lots with free spots from all/opened/closed.")
     @ApiResponse(
@@ -44,10 +59,16 @@ class ParkingController {
                             mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = ParkingResponse.class))))
     @GetMapping(path = "/free", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<ParkingResponse>> getAllParkingWithFreeSpots(
-            @Parameter(description = "search in opened parking lots") @RequestParam(required = false) Boolean opened) {
+    public ResponseEntity<?> getAllParkingWithFreeSpots(
+            @Parameter(description = "search in opened parking lots") @RequestParam(required = false) Boolean opened,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                    String acceptEncoding,
+            WebRequest webRequest) {
         log.info("Finding all parking with free spots");
-        return new ResponseEntity<>(parkingService.getAllWithFreeSpots(opened), HttpStatus.OK);
+        if (opened == null && isNotModified(webRequest)) return null;
+        if (opened == null && !isPrettyPrintRequested())
+            return snapshotResponse(parkingJsonSnapshot.parkingsWithFreeSpots(), acceptEncoding);
+        return ResponseEntity.ok(parkingService.getAllWithFreeSpots(opened));
     }
 
     @Operation(summary = "Get parking lot with the most free spots from all/opened/closed parking lots.")
@@ -61,10 +82,12 @@ class ParkingController {
             description = "parking not found",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorWrapper.class)))
     @GetMapping(path = "/free/top", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> getParkingWithTheMostFreeSpots(
+    public ResponseEntity<Object> getParkingWithTheMostFreeSpots(
             @Parameter(description = "search in opened parking lots") @RequestParam(required = false) Boolean opened,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            WebRequest webRequest) {
         log.info("Finding parking with the most free spots");
+        if (opened == null && isNotModified(webRequest)) return null;
         return handleResult(parkingService.getWithTheMostFreeSpots(opened), HttpStatus.OK, request.getRequestURI());
     }
 
@@ -93,12 +116,66 @@ class ParkingController {
                                         schema = @Schema(implementation = ErrorWrapper.class)))
             })
     @GetMapping(path = "/address", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> getClosestParking(
-            @RequestParam("address") String address, HttpServletRequest request) {
+    public ResponseEntity<Object> getClosestParking(
+            @RequestParam("address") String address, HttpServletRequest request, WebRequest webRequest) {
         log.info("Finding closest parking for address: {}", address);
+        if (isNotModified(webRequest)) return null;
         return handleResult(parkingService.getClosestParking(address), HttpStatus.OK, request.getRequestURI());
     }
 
+    @Operation(summary = "Find the parking lots closest to given address, nearest first.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "list of parking lots with distances in kilometers",
+            content =
+                    @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = NearbyParking.class))))
+    @ApiResponse(
+            responseCode = "404",
+            description = "address could not be found",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorWrapper.class)))
+    @GetMapping(path = "/address/nearest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> getNearestParkings(
+            @Parameter(description = "address to search around", example = "Flower 20, 50-337 Wroclaw") @RequestParam
+                    String address,
+            @Parameter(description = "maximum number of parking lots")
+                    @RequestParam(defaultValue = "3")
+                    @Min(1)
+                    @Max(20)
+                    Integer count,
+            HttpServletRequest request,
+            WebRequest webRequest) {
+        log.info("Finding {} nearest parking lots for address: {}", count, address);
+        if (isNotModified(webRequest)) return null;
+        return handleResult(parkingService.getNearestParkings(address, count), HttpStatus.OK, request.getRequestURI());
+    }
+
+    @Operation(summary = "Find the parking lots within given radius of address, nearest first.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "list of parking lots with distances in kilometers",
+            content =
+                    @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = NearbyParking.class))))
+    @ApiResponse(
+            responseCode = "404",
+            description = "address could not be found",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorWrapper.class)))
+    @GetMapping(path = "/address/radius", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> getParkingsWithinRadius(
+            @Parameter(description = "address to search around", example = "Flower 20, 50-337 Wroclaw") @RequestParam
+                    String address,
+            @Parameter(description = "radius in kilometers") @RequestParam @Positive Double radius,
+            HttpServletRequest request,
+            WebRequest webRequest) {
+        log.info("Finding parking lots within {} km of address: {}", radius, address);
+        if (isNotModified(webRequest)) return null;
+        return handleResult(
+                parkingService.getParkingsWithinRadius(address, radius), HttpStatus.OK, request.getRequestURI());
+    }
+
     @Operation(summary = "Fetch a parking lot by name.")
     @ApiResponse(
             responseCode = "200",
@@ -110,11 +187,13 @@ class ParkingController {
             description = "parking not found",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorWrapper.class)))
     @GetMapping(path = "/name", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> getParkingByName(
+    public ResponseEntity<Object> getParkingByName(
             @Parameter(description = "parking name") @RequestParam String name,
             @Parameter(description = "is parking opened") @RequestParam(required = false) Boolean opened,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            WebRequest webRequest) {
         log.info("Received request: get parking by name: {}", name);
+        if (opened == null && isNotModified(webRequest)) return null;
         return handleResult(parkingService.getByName(name, opened), HttpStatus.OK, request.getRequestURI());
     }
 
@@ -129,11 +208,13 @@ class ParkingController {
             description = "parking not found",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorWrapper.class)))
     @GetMapping(path = "/id", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> getParkingById(
+    public ResponseEntity<Object> getParkingById(
             @Parameter(description = "parking id") @RequestParam Integer id,
             @Parameter(description = "is parking opened") @RequestParam(required = false) Boolean opened,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            WebRequest webRequest) {
         log.info("Received request: get parking by id: {}", id);
+        if (opened == null && isNotModified(webRequest)) return null;
         return handleResult(parkingService.getById(id, opened), HttpStatus.OK, request.getRequestURI());
     }
 
@@ -148,12 +229,19 @@ class ParkingController {
             description = "parking not found",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorWrapper.class)))
     @GetMapping(path = "/symbol", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> getParkingBySymbol(
+    public ResponseEntity<?> getParkingBySymbol(
             @Parameter(description = "parking symbol") @RequestParam String symbol,
             @Parameter(description = "is parking opened") @RequestParam(required = false) Boolean opened,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            WebRequest webRequest) {
         log.info("Received request: get parking by symbol: {}", symbol);
-        return handleResult(parkingService.getBySymbol(symbol, opened), HttpStatus.OK, request.getRequestURI());
+        if (opened == null && isNotModified(webRequest)) return null;
+        Result<ParkingResponse> result = parkingService.getBySymbol(symbol, opened);
+        if (result.isSuccess() && !isPrettyPrintRequested()) {
+            Optional<byte[]> rendered = parkingJsonSnapshot.parking(result.getData());
+            if (rendered.isPresent()) return jsonResponse(rendered.get());
+        }
+        return handleResult(result, HttpStatus.OK, request.getRequestURI());
     }
 
     @Operation(summary = "Get list of parking lots by name/id/symbol/if opened/has free spots")
@@ -165,19 +253,26 @@ class ParkingController {
                             mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = ParkingResponse.class))))
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<ParkingResponse>> getParkingByParams(
+    public ResponseEntity<?> getParkingByParams(
             @Parameter(description = "parking symbol") @RequestParam(required = false) String symbol,
             @Parameter(description = "parking id") @RequestParam(required = false) Integer id,
             @Parameter(description = "parking name") @RequestParam(required = false) String name,
             @Parameter(description = "is parking opened") @RequestParam(required = false) Boolean opened,
-            @Parameter(description = "if parking has free spots") @RequestParam(required = false) Boolean freeSpots) {
+            @Parameter(description = "if parking has free spots") @RequestParam(required = false) Boolean freeSpots,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                    String acceptEncoding,
+            WebRequest webRequest) {
         log.info(
                 "Received request: get parking by symbol: {}, id: {}, name: {} and hasFreeSpots: {}",
                 symbol,
                 id,
                 name,
                 freeSpots);
-        return new ResponseEntity<>(parkingService.getByParams(symbol, id, name, opened, freeSpots), HttpStatus.OK);
+        if (opened == null && isNotModified(webRequest)) return null;
+        boolean unfiltered = symbol == null && id == null && name == null && opened == null && freeSpots == null;
+        if (unfiltered && !isPrettyPrintRequested())
+            return snapshotResponse(parkingJsonSnapshot.allParkings(), acceptEncoding);
+        return ResponseEntity.ok(parkingService.getByParams(symbol, id, name, opened, freeSpots));
     }
 
     @Operation(summary = "Fetch the chart for today for parking lot of given Id.")
@@ -199,4 +294,48 @@ class ParkingController {
     public ResponseEntity<List<Object>> getAllChartsForToday() {
         return ResponseEntity.ok(parkingService.getAllChartsForToday());
     }
+
+    private boolean isNotModified(WebRequest webRequest) {
+        return checkNotModified(pwrApiServerCaller.getParkingDataVersion(), webRequest);
+    }
+
+    private static ResponseEntity<byte[]> snapshotResponse(RenderedJson rendered, @Nullable String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding))
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.gzip());
+        return builder.body(rendered.json());
+    }
+
+    /* A gzip entry takes precedence over "*", and a q-value of 0 marks the coding as not acceptable. */
+    private static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        double gzipQuality = -1;
+        double anyQuality = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) quality = parseQuality(parameter.substring(2));
+            }
+            if (name.equals("gzip")) gzipQuality = quality;
+            else if (name.equals("*")) anyQuality = quality;
+        }
+        return gzipQuality >= 0 ? gzipQuality > 0 : anyQuality > 0;
+    }
+
+    private static double parseQuality(String quality) {
+        try {
+            return Double.parseDouble(quality.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static ResponseEntity<byte[]> jsonResponse(byte[] json) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
 }
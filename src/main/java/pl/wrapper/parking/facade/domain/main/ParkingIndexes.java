@@ -0,0 +1,54 @@
+package pl.wrapper.parking.facade.domain.main;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import pl.wrapper.parking.pwrResponseHandler.ParkingSnapshotSink;
+import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
+
+/*
+ * Indexes over the current parking list. They are rebuilt when the ingest scheduler publishes a snapshot, and lazily
+ * when fetchParkingData() hands out a list that was not published (e.g. a cache miss before the first tick).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class ParkingIndexes implements ParkingSnapshotSink {
+    private final PwrApiServerCaller pwrApiServerCaller;
+
+    private volatile Indexed indexed;
+
+    ParkingSpatialIndex spatial() {
+        return current().spatial();
+    }
+
+    ParkingLookupIndex lookup() {
+        return current().lookup();
+    }
+
+    @Override
+    public synchronized void onSnapshot(ParkingSnapshot snapshot) {
+        if (snapshot.unchanged() && indexed != null) return;
+        indexed = build(snapshot.parkings());
+    }
+
+    private Indexed current() {
+        List<ParkingResponse> parkings = pwrApiServerCaller.fetchParkingData();
+        Indexed current = indexed;
+        if (current != null && current.source() == parkings) return current;
+        synchronized (this) {
+            if (indexed == null || indexed.source() != parkings) indexed = build(parkings);
+            return indexed;
+        }
+    }
+
+    private Indexed build(List<ParkingResponse> parkings) {
+        log.info("Indexing {} parking lots", parkings.size());
+        return new Indexed(parkings, ParkingSpatialIndex.build(parkings), ParkingLookupIndex.build(parkings));
+    }
+
+    private record Indexed(List<ParkingResponse> source, ParkingSpatialIndex spatial, ParkingLookupIndex lookup) {}
+}
@@ -0,0 +1,93 @@
+package pl.wrapper.parking.facade.domain.main;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import pl.wrapper.parking.pwrResponseHandler.ParkingSnapshotSink;
+import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
+
+/*
+ * Pre-rendered json of the current parking list, rendered when the ingest scheduler publishes a snapshot and lazily
+ * for a list that was not published.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class ParkingJsonSnapshot implements ParkingSnapshotSink {
+    private final PwrApiServerCaller pwrApiServerCaller;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    RenderedJson allParkings() {
+        return current().allParkings();
+    }
+
+    RenderedJson parkingsWithFreeSpots() {
+        return current().parkingsWithFreeSpots();
+    }
+
+    Optional<byte[]> parking(ParkingResponse parking) {
+        return Optional.ofNullable(current().parkings().get(parking));
+    }
+
+    @SneakyThrows
+    private byte[] render(Object value) {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public synchronized void onSnapshot(ParkingSnapshot published) {
+        if (published.unchanged() && snapshot != null) return;
+        snapshot = build(published.parkings());
+    }
+
+    private Snapshot current() {
+        List<ParkingResponse> parkings = pwrApiServerCaller.fetchParkingData();
+        Snapshot current = snapshot;
+        if (current != null && current.source() == parkings) return current;
+        synchronized (this) {
+            if (snapshot == null || snapshot.source() != parkings) snapshot = build(parkings);
+            return snapshot;
+        }
+    }
+
+    private Snapshot build(List<ParkingResponse> parkings) {
+        log.info("Rendering json snapshot of {} parking lots", parkings.size());
+        List<ParkingResponse> withFreeSpots = parkings.stream().filter(parking -> parking.freeSpots() > 0).toList();
+        Map<ParkingResponse, byte[]> renderedParkings = new IdentityHashMap<>(parkings.size());
+        for (ParkingResponse parking : parkings) renderedParkings.put(parking, render(parking));
+        return new Snapshot(parkings, renderList(parkings), renderList(withFreeSpots), renderedParkings);
+    }
+
+    private RenderedJson renderList(List<ParkingResponse> parkings) {
+        byte[] json = render(parkings);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new RenderedJson(json, gzipped.toByteArray());
+    }
+
+    record RenderedJson(byte[] json, byte[] gzip) {}
+
+    private record Snapshot(
+            List<ParkingResponse> source,
+            RenderedJson allParkings,
+            RenderedJson parkingsWithFreeSpots,
+            Map<ParkingResponse, byte[]> parkings) {}
+}
@@ -0,0 +1,114 @@
+package pl.wrapper.parking.facade.domain.main;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import pl.wrapper.parking.pwrResponseHandler.ParkingSnapshotSink;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta.Change;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/*
+ * Live feed of the parking list for the SSE endpoint. Every published snapshot that changed anything becomes one
+ * "changes" event holding only the lots that differ from the previous snapshot, or one "snapshot" event with the full
+ * list when a lot disappeared. Event ids are snapshot versions: a client resuming with a version still covered by the
+ * replay buffer gets the events it missed, any other client starts from a full "snapshot" event of the current list.
+ */
+@Component
+@Slf4j
+class ParkingLiveStream implements ParkingSnapshotSink {
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String CHANGES_EVENT = "changes";
+
+    private final Duration heartbeat;
+    private final Duration maxConnection;
+    private final int replaySize;
+    private final Sinks.Many<LiveEvent> events;
+    private final ArrayDeque<Long> replayed = new ArrayDeque<>();
+
+    private List<ParkingResponse> currentList = List.of();
+    private long currentSequence;
+    private long resumableFrom;
+
+    ParkingLiveStream(
+            @Value("${pwr-api.stream.heartbeat.seconds}") long heartbeatSeconds,
+            @Value("${pwr-api.stream.max-connection.minutes}") long maxConnectionMinutes,
+            @Value("${pwr-api.stream.replay-size}") int replaySize) {
+        this.heartbeat = Duration.ofSeconds(heartbeatSeconds);
+        this.maxConnection = Duration.ofMinutes(maxConnectionMinutes);
+        this.replaySize = replaySize;
+        this.events = Sinks.many().replay().limit(replaySize);
+    }
+
+    @Override
+    public synchronized void onSnapshot(ParkingSnapshot snapshot) {
+        currentList = snapshot.parkings();
+        currentSequence = snapshot.sequence();
+        if (snapshot.unchanged()) return;
+
+        boolean removed = snapshot.changes().stream().anyMatch(delta -> delta.change() == Change.REMOVED);
+        LiveEvent event = removed
+                ? new LiveEvent(snapshot.sequence(), SNAPSHOT_EVENT, snapshot.parkings())
+                : new LiveEvent(snapshot.sequence(), CHANGES_EVENT, changed(snapshot));
+        replayed.addLast(event.sequence());
+        if (replayed.size() > replaySize) resumableFrom = replayed.removeFirst();
+        Sinks.EmitResult result = events.tryEmitNext(event);
+        if (result.isFailure()) log.warn("Could not emit live parking event {}. Reason: {}", event.sequence(), result);
+    }
+
+    Flux<ServerSentEvent<List<ParkingResponse>>> subscribe(@Nullable String lastEventId) {
+        return Flux.defer(() -> {
+                    long resumeAfter;
+                    LiveEvent initial = null;
+                    synchronized (this) {
+                        OptionalLong lastSeen = ParkingSnapshot.sequenceOf(lastEventId);
+                        if (lastSeen.isPresent()
+                                && lastSeen.getAsLong() >= resumableFrom
+                                && lastSeen.getAsLong() <= currentSequence) {
+                            resumeAfter = lastSeen.getAsLong();
+                        } else {
+                            resumeAfter = currentSequence;
+                            if (currentSequence > 0)
+                                initial = new LiveEvent(currentSequence, SNAPSHOT_EVENT, currentList);
+                        }
+                    }
+                    Flux<LiveEvent> missedAndLive = events.asFlux().filter(event -> event.sequence() > resumeAfter);
+                    return initial == null ? missedAndLive : missedAndLive.startWith(initial);
+                })
+                .map(this::toServerSentEvent)
+                .mergeWith(Flux.interval(heartbeat).map(tick -> ServerSentEvent.<List<ParkingResponse>>builder()
+                        .comment("heartbeat")
+                        .build()))
+                .take(maxConnection);
+    }
+
+    private static List<ParkingResponse> changed(ParkingSnapshot snapshot) {
+        Set<Integer> changedIds = new HashSet<>();
+        for (ParkingDelta delta : snapshot.changes()) changedIds.add(delta.parkingId());
+        Set<Integer> listed = new HashSet<>();
+        return snapshot.parkings().stream()
+                .filter(parking -> changedIds.contains(parking.parkingId()) && listed.add(parking.parkingId()))
+                .toList();
+    }
+
+    private ServerSentEvent<List<ParkingResponse>> toServerSentEvent(LiveEvent event) {
+        return ServerSentEvent.<List<ParkingResponse>>builder()
+                .id(ParkingSnapshot.versionOf(event.sequence()))
+                .event(event.type())
+                .data(event.parkings())
+                .build();
+    }
+
+    private record LiveEvent(long sequence, String type, List<ParkingResponse> parkings) {}
+}
@@ -0,0 +1,196 @@
+package pl.wrapper.parking.facade.domain.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import org.springframework.lang.Nullable;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+/*
+ * Point lookups by id, symbol and name. Symbols and names keep the original matching, where a parking lot matches
+ * when the lowercase query contains its lowercase symbol/name, and the first matching lot in Pwr api order wins.
+ * Opening state changes with the clock, so it is checked at lookup time against the precomputed candidates.
+ */
+final class ParkingLookupIndex {
+    private static final int MAX_DENSE_ID = 1 << 16;
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final ParkingResponse[] parkings;
+    private final int[][] denseIds;
+    private final Map<Integer, int[]> sparseIds;
+    private final ContainedKeys symbols;
+    private final ContainedKeys names;
+
+    private ParkingLookupIndex(
+            ParkingResponse[] parkings,
+            int[][] denseIds,
+            Map<Integer, int[]> sparseIds,
+            ContainedKeys symbols,
+            ContainedKeys names) {
+        this.parkings = parkings;
+        this.denseIds = denseIds;
+        this.sparseIds = sparseIds;
+        this.symbols = symbols;
+        this.names = names;
+    }
+
+    static ParkingLookupIndex build(List<ParkingResponse> source) {
+        ParkingResponse[] parkings = source.toArray(ParkingResponse[]::new);
+
+        Map<Integer, List<Integer>> idPositions = new HashMap<>();
+        int maxDenseId = -1;
+        for (int i = 0; i < parkings.length; i++) {
+            int id = parkings[i].parkingId();
+            idPositions.computeIfAbsent(id, key -> new ArrayList<>()).add(i);
+            if (id >= 0 && id < MAX_DENSE_ID) maxDenseId = Math.max(maxDenseId, id);
+        }
+        int[][] denseIds = new int[maxDenseId + 1][];
+        Arrays.fill(denseIds, NO_POSITIONS);
+        Map<Integer, int[]> sparseIds = new HashMap<>();
+        idPositions.forEach((id, positions) -> {
+            int[] sorted = positions.stream().mapToInt(Integer::intValue).toArray();
+            if (id >= 0 && id < MAX_DENSE_ID) denseIds[id] = sorted;
+            else sparseIds.put(id, sorted);
+        });
+
+        return new ParkingLookupIndex(
+                parkings,
+                denseIds,
+                sparseIds,
+                ContainedKeys.build(parkings, ParkingResponse::symbol),
+                ContainedKeys.build(parkings, ParkingResponse::name));
+    }
+
+    Optional<ParkingResponse> byId(int id, @Nullable Boolean opened) {
+        int[] positions = id >= 0 && id < denseIds.length ? denseIds[id] : sparseIds.getOrDefault(id, NO_POSITIONS);
+        for (int position : positions) if (matchesOpened(parkings[position], opened)) return toParking(position);
+        return Optional.empty();
+    }
+
+    Optional<ParkingResponse> bySymbol(String symbol, @Nullable Boolean opened) {
+        return toParking(symbols.find(symbol.toLowerCase(), opened));
+    }
+
+    Optional<ParkingResponse> byName(String name, @Nullable Boolean opened) {
+        return toParking(names.find(name.toLowerCase(), opened));
+    }
+
+    private Optional<ParkingResponse> toParking(int position) {
+        return position < 0 ? Optional.empty() : Optional.of(parkings[position]);
+    }
+
+    private static boolean matchesOpened(ParkingResponse parking, @Nullable Boolean opened) {
+        return opened == null || opened == parking.isOpened();
+    }
+
+    /*
+     * Lowercase keys in a character trie whose terminal nodes list the positions of lots with that exact key. A query
+     * equal to a known key is answered from a hash map of precomputed candidates; any other query walks the trie from
+     * every offset, which visits exactly the keys contained in it.
+     */
+    private static final class ContainedKeys {
+        private final ParkingResponse[] parkings;
+        private final char[][] labels;
+        private final int[][] children;
+        private final int[][] terminals;
+        private final Map<String, int[]> knownKeys;
+
+        private ContainedKeys(
+                ParkingResponse[] parkings,
+                char[][] labels,
+                int[][] children,
+                int[][] terminals,
+                Map<String, int[]> knownKeys) {
+            this.parkings = parkings;
+            this.labels = labels;
+            this.children = children;
+            this.terminals = terminals;
+            this.knownKeys = knownKeys;
+        }
+
+        static ContainedKeys build(ParkingResponse[] parkings, Function<ParkingResponse, String> key) {
+            String[] keys = new String[parkings.length];
+            List<TreeMap<Character, Integer>> edges = new ArrayList<>(List.of(new TreeMap<>()));
+            List<List<Integer>> terminalPositions = new ArrayList<>(List.of(new ArrayList<>()));
+            for (int i = 0; i < parkings.length; i++) {
+                String value = key.apply(parkings[i]);
+                if (value == null) continue;
+                keys[i] = value.toLowerCase();
+                int node = 0;
+                for (int c = 0; c < keys[i].length(); c++) {
+                    Integer child = edges.get(node).get(keys[i].charAt(c));
+                    if (child == null) {
+                        child = edges.size();
+                        edges.get(node).put(keys[i].charAt(c), child);
+                        edges.add(new TreeMap<>());
+                        terminalPositions.add(new ArrayList<>());
+                    }
+                    node = child;
+                }
+                terminalPositions.get(node).add(i);
+            }
+
+            char[][] labels = new char[edges.size()][];
+            int[][] children = new int[edges.size()][];
+            int[][] terminals = new int[edges.size()][];
+            for (int node = 0; node < edges.size(); node++) {
+                TreeMap<Character, Integer> nodeEdges = edges.get(node);
+                labels[node] = new char[nodeEdges.size()];
+                children[node] = new int[nodeEdges.size()];
+                int edge = 0;
+                for (Map.Entry<Character, Integer> entry : nodeEdges.entrySet()) {
+                    labels[node][edge] = entry.getKey();
+                    children[node][edge++] = entry.getValue();
+                }
+                terminals[node] = terminalPositions.get(node).stream()
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            }
+
+            Map<String, int[]> knownKeys = new HashMap<>();
+            for (String known : keys) {
+                if (known == null || knownKeys.containsKey(known)) continue;
+                List<Integer> candidates = new ArrayList<>();
+                for (int i = 0; i < keys.length; i++) if (keys[i] != null && known.contains(keys[i])) candidates.add(i);
+                knownKeys.put(known, candidates.stream().mapToInt(Integer::intValue).toArray());
+            }
+            return new ContainedKeys(parkings, labels, children, terminals, knownKeys);
+        }
+
+        int find(String query, @Nullable Boolean opened) {
+            int[] candidates = knownKeys.get(query);
+            if (candidates != null) {
+                for (int position : candidates) if (matchesOpened(parkings[position], opened)) return position;
+                return -1;
+            }
+
+            int best = firstMatching(terminals[0], opened, -1);
+            for (int start = 0; start < query.length(); start++) {
+                int node = 0;
+                for (int c = start; c < query.length() && node >= 0; c++) {
+                    node = child(node, query.charAt(c));
+                    if (node >= 0) best = firstMatching(terminals[node], opened, best);
+                }
+            }
+            return best;
+        }
+
+        private int child(int node, char label) {
+            int edge = Arrays.binarySearch(labels[node], label);
+            return edge < 0 ? -1 : children[node][edge];
+        }
+
+        private int firstMatching(int[] positions, @Nullable Boolean opened, int best) {
+            for (int position : positions) {
+                if (best >= 0 && position >= best) return best;
+                if (matchesOpened(parkings[position], opened)) return position;
+            }
+            return best;
+        }
+    }
+}
@@ -10,16 +10,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import pl.wrapper.parking.facade.ParkingService;
+import pl.wrapper.parking.facade.dto.main.NearbyParking;
 import pl.wrapper.parking.facade.dto.main.NominatimLocation;
 import pl.wrapper.parking.infrastructure.error.ParkingError;
 import pl.wrapper.parking.infrastructure.error.Result;
-import pl.wrapper.parking.infrastructure.nominatim.client.NominatimClient;
+import pl.wrapper.parking.infrastructure.nominatim.cache.GeocodingCache;
 import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
 import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
 
 @Service
 @Slf4j
-record ParkingServiceImpl(PwrApiServerCaller pwrApiServerCaller, NominatimClient nominatimClient)
+record ParkingServiceImpl(
+        PwrApiServerCaller pwrApiServerCaller, GeocodingCache geocodingCache, ParkingIndexes parkingIndexes)
         implements ParkingService {
 
     @Override
@@ -39,38 +41,51 @@ record ParkingServiceImpl(PwrApiServerCaller pwrApiServerCaller, NominatimClient
 
     @Override
     public Result<ParkingResponse> getClosestParking(String address) {
-        Optional<NominatimLocation> geoLocation =
-                nominatimClient.search(address, "json").next().blockOptional();
-        return geoLocation
-                .map(location -> findClosestParking(location, pwrApiServerCaller.fetchParkingData())
-                        .map(Result::success)
-                        .orElse(Result.failure(new ParkingError.ParkingNotFoundByAddress(address))))
-                .orElseGet(() -> {
-                    log.info("No geocoding results for address: {}", address);
-                    return Result.failure(new ParkingError.ParkingNotFoundByAddress(address));
-                });
+        Result<List<NearbyParking>> nearest = getNearestParkings(address, 1);
+        if (nearest.isSuccess() && !nearest.getData().isEmpty())
+            return Result.success(nearest.getData().getFirst().parking());
+        return Result.failure(new ParkingError.ParkingNotFoundByAddress(address));
+    }
+
+    @Override
+    public Result<List<NearbyParking>> getNearestParkings(String address, int count) {
+        return geocode(address)
+                .map(location -> Result.success(
+                        parkingIndexes.spatial().nearest(location.latitude(), location.longitude(), count)))
+                .orElseGet(() -> Result.failure(new ParkingError.ParkingNotFoundByAddress(address)));
+    }
+
+    @Override
+    public Result<List<NearbyParking>> getParkingsWithinRadius(String address, double radiusKm) {
+        return geocode(address)
+                .map(location -> Result.success(
+                        parkingIndexes.spatial().withinRadius(location.latitude(), location.longitude(), radiusKm)))
+                .orElseGet(() -> Result.failure(new ParkingError.ParkingNotFoundByAddress(address)));
     }
 
     @Override
     public Result<ParkingResponse> getByName(String name, @Nullable Boolean opened) {
-        Predicate<ParkingResponse> predicate = generatePredicateForParams(null, null, name, opened, null);
-        return findParking(predicate)
+        return parkingIndexes
+                .lookup()
+                .byName(name, opened)
                 .map(this::handleFoundParking)
                 .orElse(Result.failure(new ParkingError.ParkingNotFoundByName(name)));
     }
 
     @Override
     public Result<ParkingResponse> getById(Integer id, @Nullable Boolean opened) {
-        Predicate<ParkingResponse> predicate = generatePredicateForParams(null, id, null, opened, null);
-        return findParking(predicate)
+        return parkingIndexes
+                .lookup()
+                .byId(id, opened)
                 .map(this::handleFoundParking)
                 .orElse(Result.failure(new ParkingError.ParkingNotFoundById(id)));
     }
 
     @Override
     public Result<ParkingResponse> getBySymbol(String symbol, @Nullable Boolean opened) {
-        Predicate<ParkingResponse> predicate = generatePredicateForParams(symbol, null, null, opened, null);
-        return findParking(predicate)
+        return parkingIndexes
+                .lookup()
+                .bySymbol(symbol, opened)
                 .map(this::handleFoundParking)
                 .orElse(Result.failure(new ParkingError.ParkingNotFoundBySymbol(symbol)));
     }
@@ -101,31 +116,10 @@ record ParkingServiceImpl(PwrApiServerCaller pwrApiServerCaller, NominatimClient
         return pwrApiServerCaller.fetchParkingData().stream().filter(filteringPredicate);
     }
 
-    private Optional<ParkingResponse> findParking(Predicate<ParkingResponse> predicate) {
-        return getStreamOfFilteredFetchedParkingLots(predicate).findFirst();
-    }
-
-    private Optional<ParkingResponse> findClosestParking(
-            NominatimLocation location, List<ParkingResponse> parkingLots) {
-        double lat = location.latitude();
-        double lon = location.longitude();
-
-        return parkingLots.stream()
-                .min(Comparator.comparingDouble(parking -> haversineDistance(
-                        lat,
-                        lon,
-                        parking.address().geoLatitude(),
-                        parking.address().geoLongitude())));
-    }
-
-    private static double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int EARTH_RADIUS = 6371;
-
-        double havLat = (1 - Math.cos(Math.toRadians(lat2 - lat1))) / 2;
-        double havLon = (1 - Math.cos(Math.toRadians(lon2 - lon1))) / 2;
-        double haversine = havLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * havLon;
-
-        return 2 * EARTH_RADIUS * Math.atan2(Math.sqrt(haversine), Math.sqrt(1 - haversine));
+    private Optional<NominatimLocation> geocode(String address) {
+        Optional<NominatimLocation> location = geocodingCache.geocode(address);
+        if (location.isEmpty()) log.info("No geocoding results for address: {}", address);
+        return location;
     }
 
     private Result<ParkingResponse> handleFoundParking(ParkingResponse found) {
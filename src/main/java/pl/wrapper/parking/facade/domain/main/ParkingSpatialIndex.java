@@ -0,0 +1,155 @@
+package pl.wrapper.parking.facade.domain.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import pl.wrapper.parking.facade.dto.main.NearbyParking;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+/*
+ * Static 3d-tree over parking lots placed on the unit sphere. The squared chord between two unit vectors grows
+ * monotonically with the great circle distance, so ordering and pruning are exact without any trigonometry;
+ * haversine is only evaluated for the lots that are returned.
+ */
+final class ParkingSpatialIndex {
+    private static final double EARTH_RADIUS = 6371;
+    private static final int DIMENSIONS = 3;
+
+    private final ParkingResponse[] parkings;
+    private final int[] positions;
+    private final double[][] points;
+
+    private ParkingSpatialIndex(ParkingResponse[] parkings, int[] positions, double[][] points) {
+        this.parkings = parkings;
+        this.positions = positions;
+        this.points = points;
+    }
+
+    static ParkingSpatialIndex build(List<ParkingResponse> source) {
+        List<Integer> located = new ArrayList<>(source.size());
+        for (int i = 0; i < source.size(); i++) if (source.get(i).address() != null) located.add(i);
+
+        Integer[] order = located.toArray(Integer[]::new);
+        double[][] sourcePoints = new double[source.size()][];
+        for (int position : order) {
+            ParkingResponse parking = source.get(position);
+            sourcePoints[position] = toUnitVector(parking.address().geoLatitude(), parking.address().geoLongitude());
+        }
+        arrange(order, sourcePoints, 0, order.length, 0);
+
+        ParkingResponse[] parkings = new ParkingResponse[order.length];
+        int[] positions = new int[order.length];
+        double[][] points = new double[order.length][];
+        for (int i = 0; i < order.length; i++) {
+            parkings[i] = source.get(order[i]);
+            positions[i] = order[i];
+            points[i] = sourcePoints[order[i]];
+        }
+        return new ParkingSpatialIndex(parkings, positions, points);
+    }
+
+    List<NearbyParking> nearest(double latitude, double longitude, int count) {
+        if (count <= 0 || parkings.length == 0) return List.of();
+        double[] query = toUnitVector(latitude, longitude);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(count + 1, Candidate.ORDER.reversed());
+        collectNearest(0, parkings.length, 0, query, count, best);
+        return toNearbyParkings(new ArrayList<>(best), latitude, longitude);
+    }
+
+    List<NearbyParking> withinRadius(double latitude, double longitude, double radiusKm) {
+        if (radiusKm < 0 || parkings.length == 0) return List.of();
+        double[] query = toUnitVector(latitude, longitude);
+        double chord = 2 * Math.sin(Math.min(radiusKm / EARTH_RADIUS, Math.PI) / 2);
+        List<Candidate> found = new ArrayList<>();
+        collectWithin(0, parkings.length, 0, query, chord * chord, found);
+        return toNearbyParkings(found, latitude, longitude);
+    }
+
+    private void collectNearest(int from, int to, int depth, double[] query, int count, PriorityQueue<Candidate> best) {
+        if (from >= to) return;
+        int node = (from + to) >>> 1;
+        Candidate candidate = new Candidate(node, positions[node], squaredChord(points[node], query));
+        if (best.size() < count) best.add(candidate);
+        else if (Candidate.ORDER.compare(candidate, best.peek()) < 0) {
+            best.poll();
+            best.add(candidate);
+        }
+
+        int axis = depth % DIMENSIONS;
+        double delta = points[node][axis] - query[axis];
+        boolean queryOnLeft = delta > 0;
+        if (queryOnLeft) collectNearest(from, node, depth + 1, query, count, best);
+        else collectNearest(node + 1, to, depth + 1, query, count, best);
+        if (best.size() < count || delta * delta <= best.peek().squaredChord()) {
+            if (queryOnLeft) collectNearest(node + 1, to, depth + 1, query, count, best);
+            else collectNearest(from, node, depth + 1, query, count, best);
+        }
+    }
+
+    private void collectWithin(
+            int from, int to, int depth, double[] query, double squaredRadius, List<Candidate> found) {
+        if (from >= to) return;
+        int node = (from + to) >>> 1;
+        double squaredChord = squaredChord(points[node], query);
+        if (squaredChord <= squaredRadius) found.add(new Candidate(node, positions[node], squaredChord));
+
+        int axis = depth % DIMENSIONS;
+        double delta = points[node][axis] - query[axis];
+        if (delta > 0 || delta * delta <= squaredRadius)
+            collectWithin(from, node, depth + 1, query, squaredRadius, found);
+        if (delta <= 0 || delta * delta <= squaredRadius)
+            collectWithin(node + 1, to, depth + 1, query, squaredRadius, found);
+    }
+
+    private List<NearbyParking> toNearbyParkings(List<Candidate> candidates, double latitude, double longitude) {
+        candidates.sort(Candidate.ORDER);
+        List<NearbyParking> result = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            ParkingResponse parking = parkings[candidate.node()];
+            double distance = haversineDistance(
+                    latitude, longitude, parking.address().geoLatitude(), parking.address().geoLongitude());
+            result.add(new NearbyParking(parking, distance));
+        }
+        return result;
+    }
+
+    private static void arrange(Integer[] order, double[][] points, int from, int to, int depth) {
+        if (to - from <= 1) return;
+        int axis = depth % DIMENSIONS;
+        Comparator<Integer> byAxis = Comparator.<Integer>comparingDouble(position -> points[position][axis])
+                .thenComparingInt(position -> position);
+        Arrays.sort(order, from, to, byAxis);
+        int node = (from + to) >>> 1;
+        arrange(order, points, from, node, depth + 1);
+        arrange(order, points, node + 1, to, depth + 1);
+    }
+
+    private static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[] {cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private static double squaredChord(double[] a, double[] b) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    static double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
+        double havLat = (1 - Math.cos(Math.toRadians(lat2 - lat1))) / 2;
+        double havLon = (1 - Math.cos(Math.toRadians(lon2 - lon1))) / 2;
+        double haversine = havLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * havLon;
+
+        return 2 * EARTH_RADIUS * Math.atan2(Math.sqrt(haversine), Math.sqrt(1 - haversine));
+    }
+
+    private record Candidate(int node, int position, double squaredChord) {
+        private static final Comparator<Candidate> ORDER =
+                Comparator.comparingDouble(Candidate::squaredChord).thenComparingInt(Candidate::position);
+    }
+}
@@ -0,0 +1,78 @@
+package pl.wrapper.parking.facade.domain.main;
+
+import static pl.wrapper.parking.infrastructure.error.HandleResult.handleResult;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import pl.wrapper.parking.infrastructure.error.ErrorWrapper;
+import pl.wrapper.parking.pwrResponseHandler.ParkingChangeLog;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingChanges;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/parkings")
+@Tag(name = "Parking API Updates", description = "Endpoints following parking lot updates as they are fetched")
+class ParkingUpdatesController {
+    private final ParkingLiveStream parkingLiveStream;
+    private final ParkingChangeLog parkingChangeLog;
+
+    @Operation(
+            summary = "Stream parking lot updates as server-sent events.",
+            description = "A 'snapshot' event carries the full list of parking lots, a 'changes' event only the lots"
+                    + " that changed since the previous event. Reconnecting with the Last-Event-ID header resumes"
+                    + " with the missed events when they are still available, otherwise with a fresh snapshot.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "stream of parking lot updates",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<List<ParkingResponse>>> streamParkings(
+            @Parameter(description = "id of the last event received before reconnecting")
+                    @RequestHeader(name = "Last-Event-ID", required = false)
+                    String lastEventId) {
+        log.info("Opening parking stream, resuming after event: {}", lastEventId);
+        return parkingLiveStream.subscribe(lastEventId);
+    }
+
+    @Operation(
+            summary = "Get the changed fields of parking lots since given version.",
+            description = "Pass the version of the previous response as since. Without it, or when it is too old, the"
+                    + " response is full and lists every parking lot with all fields.")
+    @ApiResponse(
+            responseCode = "200",
+            description = "changes since given version",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ParkingChanges.class)))
+    @ApiResponse(
+            responseCode = "503",
+            description = "no parking data fetched yet",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorWrapper.class)))
+    @GetMapping(path = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> getChangesSince(
+            @Parameter(description = "version of the last response", example = "m2x8k1c0-42")
+                    @RequestParam(required = false)
+                    String since,
+            HttpServletRequest request) {
+        log.info("Finding parking changes since version: {}", since);
+        return handleResult(parkingChangeLog.changesSince(since), HttpStatus.OK, request.getRequestURI());
+    }
+}
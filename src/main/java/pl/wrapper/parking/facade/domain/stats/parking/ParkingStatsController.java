@@ -1,5 +1,7 @@
 package pl.wrapper.parking.facade.domain.stats.parking;
 
+import static pl.wrapper.parking.infrastructure.util.DataVersion.checkNotModified;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -20,13 +22,16 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import pl.wrapper.parking.facade.ParkingStatsService;
+import pl.wrapper.parking.facade.dto.stats.parking.AveragingMode;
 import pl.wrapper.parking.facade.dto.stats.parking.ParkingStatsResponse;
 import pl.wrapper.parking.facade.dto.stats.parking.daily.CollectiveDailyParkingStats;
 import pl.wrapper.parking.facade.dto.stats.parking.daily.DailyParkingStatsResponse;
 import pl.wrapper.parking.facade.dto.stats.parking.weekly.CollectiveWeeklyParkingStats;
 import pl.wrapper.parking.facade.dto.stats.parking.weekly.WeeklyParkingStatsResponse;
 import pl.wrapper.parking.infrastructure.error.ErrorWrapper;
+import pl.wrapper.parking.infrastructure.inMemory.ParkingDataRepository;
 import pl.wrapper.parking.infrastructure.validation.validIds.ValidIds;
 
 @RestController
@@ -37,12 +42,17 @@ import pl.wrapper.parking.infrastructure.validation.validIds.ValidIds;
 class ParkingStatsController {
 
     private final ParkingStatsService parkingStatsService;
+    private final ParkingDataRepository parkingDataRepository;
 
     @Operation(
             summary = "Get parking statistics",
             description = "Fetch statistics for specified parking IDs, day of week, and time",
             parameters = {
                 @Parameter(name = "ids", description = "List of parking IDs to filter stats for", example = "1,3,5"),
+                @Parameter(
+                        name = "averaging",
+                        description = "CUMULATIVE averages all samples, DECAYED favours recent weeks",
+                        example = "DECAYED"),
                 @Parameter(
                         name = "day_of_week",
                         description = "Day of week to filter stats for",
@@ -76,13 +86,16 @@ class ParkingStatsController {
     public ResponseEntity<List<ParkingStatsResponse>> getParkingStats(
             @RequestParam(name = "ids", required = false) @ValidIds List<Integer> parkingIds,
             @RequestParam(name = "day_of_week", required = false) DayOfWeek dayOfWeek,
-            @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) @RequestParam(name = "time") LocalTime time) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) @RequestParam(name = "time") LocalTime time,
+            @RequestParam(name = "averaging", defaultValue = "CUMULATIVE") AveragingMode mode,
+            WebRequest webRequest) {
         log.info(
                 "Fetching parking stats with parameters: ids = {}, day_of_week = {}, time = {}",
                 parkingIds,
                 dayOfWeek,
                 time);
-        return ResponseEntity.ok(parkingStatsService.getParkingStats(parkingIds, dayOfWeek, time));
+        if (checkNotModified(parkingDataRepository.getDataVersion(), webRequest)) return null;
+        return ResponseEntity.ok(parkingStatsService.getParkingStats(parkingIds, dayOfWeek, time, mode));
     }
 
     @Operation(
@@ -90,6 +103,10 @@ class ParkingStatsController {
             description = "Fetch daily statistics for specified parking IDs and day of week",
             parameters = {
                 @Parameter(name = "ids", description = "List of parking IDs to filter stats for", example = "1,3,5"),
+                @Parameter(
+                        name = "averaging",
+                        description = "CUMULATIVE averages all samples, DECAYED favours recent weeks",
+                        example = "DECAYED"),
                 @Parameter(
                         name = "day_of_week",
                         description = "Day of week to filter stats for",
@@ -120,16 +137,23 @@ class ParkingStatsController {
     @GetMapping(path = "/daily", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<DailyParkingStatsResponse>> getDailyParkingStats(
             @RequestParam(name = "ids", required = false) @ValidIds List<Integer> parkingIds,
-            @RequestParam(name = "day_of_week") DayOfWeek dayOfWeek) {
+            @RequestParam(name = "day_of_week") DayOfWeek dayOfWeek,
+            @RequestParam(name = "averaging", defaultValue = "CUMULATIVE") AveragingMode mode,
+            WebRequest webRequest) {
         log.info("Fetching daily parking stats with parameters: ids = {}, day_of_week = {}", parkingIds, dayOfWeek);
-        return ResponseEntity.ok(parkingStatsService.getDailyParkingStats(parkingIds, dayOfWeek));
+        if (checkNotModified(parkingDataRepository.getDataVersion(), webRequest)) return null;
+        return ResponseEntity.ok(parkingStatsService.getDailyParkingStats(parkingIds, dayOfWeek, mode));
     }
 
     @Operation(
             summary = "Get weekly parking statistics",
             description = "Fetch weekly statistics for specified parking IDs",
             parameters = {
-                @Parameter(name = "ids", description = "List of parking IDs to filter stats for", example = "1,3,5")
+                @Parameter(name = "ids", description = "List of parking IDs to filter stats for", example = "1,3,5"),
+                @Parameter(
+                        name = "averaging",
+                        description = "CUMULATIVE averages all samples, DECAYED favours recent weeks",
+                        example = "DECAYED")
             },
             responses = {
                 @ApiResponse(
@@ -154,9 +178,12 @@ class ParkingStatsController {
             })
     @GetMapping(path = "/weekly", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<WeeklyParkingStatsResponse>> getWeeklyParkingStats(
-            @RequestParam(name = "ids", required = false) @ValidIds List<Integer> parkingIds) {
+            @RequestParam(name = "ids", required = false) @ValidIds List<Integer> parkingIds,
+            @RequestParam(name = "averaging", defaultValue = "CUMULATIVE") AveragingMode mode,
+            WebRequest webRequest) {
         log.info("Fetching weekly parking stats with parameters: ids = {}", parkingIds);
-        return ResponseEntity.ok(parkingStatsService.getWeeklyParkingStats(parkingIds));
+        if (checkNotModified(parkingDataRepository.getDataVersion(), webRequest)) return null;
+        return ResponseEntity.ok(parkingStatsService.getWeeklyParkingStats(parkingIds, mode));
     }
 
     @Operation(
@@ -164,6 +191,10 @@ class ParkingStatsController {
             description = "Fetch daily statistics for specified parking IDs and day of week for each time interval",
             parameters = {
                 @Parameter(name = "ids", description = "List of parking IDs to filter stats for", example = "1,3,5"),
+                @Parameter(
+                        name = "averaging",
+                        description = "CUMULATIVE averages all samples, DECAYED favours recent weeks",
+                        example = "DECAYED"),
                 @Parameter(
                         name = "day_of_week",
                         description = "Day of week to filter stats for",
@@ -199,19 +230,26 @@ class ParkingStatsController {
     @GetMapping(path = "/daily/collective", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<CollectiveDailyParkingStats>> getCollectiveDailyParkingStats(
             @RequestParam(name = "ids", required = false) @ValidIds List<Integer> parkingIds,
-            @RequestParam(name = "day_of_week") DayOfWeek dayOfWeek) {
+            @RequestParam(name = "day_of_week") DayOfWeek dayOfWeek,
+            @RequestParam(name = "averaging", defaultValue = "CUMULATIVE") AveragingMode mode,
+            WebRequest webRequest) {
         log.info(
                 "Fetching collective daily parking stats with parameters: ids = {}, day_of_week = {}",
                 parkingIds,
                 dayOfWeek);
-        return ResponseEntity.ok(parkingStatsService.getCollectiveDailyParkingStats(parkingIds, dayOfWeek));
+        if (checkNotModified(parkingDataRepository.getDataVersion(), webRequest)) return null;
+        return ResponseEntity.ok(parkingStatsService.getCollectiveDailyParkingStats(parkingIds, dayOfWeek, mode));
     }
 
     @Operation(
             summary = "Get collective weekly parking statistics",
             description = "Fetch weekly statistics for specified parking IDs for each time interval of each day",
             parameters = {
-                @Parameter(name = "ids", description = "List of parking IDs to filter stats for", example = "1,3,5")
+                @Parameter(name = "ids", description = "List of parking IDs to filter stats for", example = "1,3,5"),
+                @Parameter(
+                        name = "averaging",
+                        description = "CUMULATIVE averages all samples, DECAYED favours recent weeks",
+                        example = "DECAYED")
             },
             responses = {
                 @ApiResponse(
@@ -236,8 +274,11 @@ class ParkingStatsController {
             })
     @GetMapping(path = "/weekly/collective", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<CollectiveWeeklyParkingStats>> getCollectiveWeeklyParkingStats(
-            @RequestParam(name = "ids", required = false) @ValidIds List<Integer> parkingIds) {
+            @RequestParam(name = "ids", required = false) @ValidIds List<Integer> parkingIds,
+            @RequestParam(name = "averaging", defaultValue = "CUMULATIVE") AveragingMode mode,
+            WebRequest webRequest) {
         log.info("Fetching collective weekly parking stats with parameters: ids = {}", parkingIds);
-        return ResponseEntity.ok(parkingStatsService.getCollectiveWeeklyParkingStats(parkingIds));
+        if (checkNotModified(parkingDataRepository.getDataVersion(), webRequest)) return null;
+        return ResponseEntity.ok(parkingStatsService.getCollectiveWeeklyParkingStats(parkingIds, mode));
     }
 }
@@ -19,7 +19,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import pl.wrapper.parking.facade.ParkingStatsService;
+import pl.wrapper.parking.facade.dto.stats.parking.AveragingMode;
 import pl.wrapper.parking.facade.dto.stats.parking.ParkingStatsResponse;
+import pl.wrapper.parking.facade.dto.stats.parking.basis.AvailabilityPercentiles;
 import pl.wrapper.parking.facade.dto.stats.parking.basis.OccupancyInfo;
 import pl.wrapper.parking.facade.dto.stats.parking.basis.ParkingInfo;
 import pl.wrapper.parking.facade.dto.stats.parking.basis.ParkingStats;
@@ -29,7 +31,11 @@ import pl.wrapper.parking.facade.dto.stats.parking.weekly.CollectiveWeeklyParkin
 import pl.wrapper.parking.facade.dto.stats.parking.weekly.WeeklyParkingStatsResponse;
 import pl.wrapper.parking.infrastructure.inMemory.ParkingDataRepository;
 import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilitySketch;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingAggregate;
 import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.SlotAggregate;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.WeeklyHistogram;
 import pl.wrapper.parking.infrastructure.util.DateTimeUtils;
 
 @Service
@@ -39,8 +45,8 @@ record ParkingStatsServiceImpl(
 
     @Override
     public List<ParkingStatsResponse> getParkingStats(
-            @Nullable List<Integer> parkingIds, @Nullable DayOfWeek dayOfWeek, LocalTime time) {
-        Collection<ParkingData> dataList = getParkingDataList(parkingIds);
+            @Nullable List<Integer> parkingIds, @Nullable DayOfWeek dayOfWeek, LocalTime time, AveragingMode mode) {
+        Collection<ParkingData> dataList = getParkingDataList(parkingIds, mode);
 
         if (dayOfWeek != null) {
             LocalDateTime roundedDateTime = DateTimeUtils.roundToNearestInterval(
@@ -55,24 +61,34 @@ record ParkingStatsServiceImpl(
 
     @Override
     public List<DailyParkingStatsResponse> getDailyParkingStats(
-            @Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek) {
-        return processParkingDataDaily(dayOfWeek, getParkingDataList(parkingIds));
+            @Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek, AveragingMode mode) {
+        return processParkingDataDaily(dayOfWeek, getParkingDataList(parkingIds, mode), mode);
     }
 
     @Override
-    public List<WeeklyParkingStatsResponse> getWeeklyParkingStats(@Nullable List<Integer> parkingIds) {
-        return processParkingDataWeekly(getParkingDataList(parkingIds));
+    public List<WeeklyParkingStatsResponse> getWeeklyParkingStats(
+            @Nullable List<Integer> parkingIds, AveragingMode mode) {
+        return processParkingDataWeekly(getParkingDataList(parkingIds, mode), mode);
     }
 
     @Override
     public List<CollectiveDailyParkingStats> getCollectiveDailyParkingStats(
-            @Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek) {
-        return processCollectiveParkingDataDaily(dayOfWeek, getParkingDataList(parkingIds));
+            @Nullable List<Integer> parkingIds, DayOfWeek dayOfWeek, AveragingMode mode) {
+        return processCollectiveParkingDataDaily(dayOfWeek, getParkingDataList(parkingIds, mode));
     }
 
     @Override
-    public List<CollectiveWeeklyParkingStats> getCollectiveWeeklyParkingStats(@Nullable List<Integer> parkingIds) {
-        return processCollectiveParkingDataWeekly(getParkingDataList(parkingIds));
+    public List<CollectiveWeeklyParkingStats> getCollectiveWeeklyParkingStats(
+            @Nullable List<Integer> parkingIds, AveragingMode mode) {
+        return processCollectiveParkingDataWeekly(getParkingDataList(parkingIds, mode));
+    }
+
+    /* In decayed mode every lot is swapped for its decayed view, so the calculations below need not know the mode. */
+    private Collection<ParkingData> getParkingDataList(List<Integer> parkingIds, AveragingMode mode) {
+        Collection<ParkingData> dataList = getParkingDataList(parkingIds);
+        return mode == AveragingMode.DECAYED
+                ? dataList.stream().map(ParkingData::decayed).toList()
+                : dataList;
     }
 
     private Collection<ParkingData> getParkingDataList(List<Integer> parkingIds) {
@@ -92,7 +108,9 @@ record ParkingStatsServiceImpl(
                     data.freeSpotsHistory().getOrDefault(roundedDay, Map.of()).get(roundedTime);
             double availability = Objects.requireNonNullElse(availabilityData, new AvailabilityData(0, 0.0))
                     .averageAvailability();
-            ParkingStatsResponse response = calculateParkingStats(data, List.of(availability));
+            WeeklyHistogram histogram = data.histogram();
+            AvailabilitySketch distribution = histogram == null ? null : histogram.sketch(roundedDay, roundedTime);
+            ParkingStatsResponse response = calculateParkingStats(data, availability, distribution);
             result.add(new ParkingStatsResponse(response.parkingInfo(), response.stats()));
         }
         return result;
@@ -102,93 +120,90 @@ record ParkingStatsServiceImpl(
             Collection<ParkingData> dataList, LocalTime roundedTime) {
         List<ParkingStatsResponse> result = new ArrayList<>();
         for (ParkingData data : dataList) {
+            AvailabilitySketch distribution = distributionAt(data, roundedTime);
             data.freeSpotsHistory().values().stream()
                     .map(dailyHistory -> dailyHistory.get(roundedTime))
                     .filter(Objects::nonNull)
                     .mapToDouble(AvailabilityData::averageAvailability)
                     .average()
                     .ifPresentOrElse(
-                            availability -> result.add(calculateParkingStats(data, List.of(availability))),
-                            () -> result.add(calculateParkingStats(data, List.of())));
+                            availability -> result.add(calculateParkingStats(data, availability, distribution)),
+                            () -> result.add(calculateParkingStats(data, 0.0, distribution)));
         }
         return result;
     }
 
-    private static List<DailyParkingStatsResponse> processParkingDataDaily(
-            DayOfWeek dayOfWeek, Collection<ParkingData> dataList) {
+    private List<DailyParkingStatsResponse> processParkingDataDaily(
+            DayOfWeek dayOfWeek, Collection<ParkingData> dataList, AveragingMode mode) {
         List<DailyParkingStatsResponse> result = new ArrayList<>();
         for (ParkingData data : dataList) {
-            List<Double> availabilities = new ArrayList<>();
-            LocalTime maxOccupancyAt = null;
-            LocalTime minOccupancyAt = null;
-            double maxAvailability = Double.NEGATIVE_INFINITY;
-            double minAvailability = Double.POSITIVE_INFINITY;
-
-            for (Map.Entry<LocalTime, AvailabilityData> entry :
-                    data.freeSpotsHistory().getOrDefault(dayOfWeek, Map.of()).entrySet()) {
-                LocalTime time = entry.getKey();
-                double availability = entry.getValue().averageAvailability();
-                availabilities.add(availability);
-
-                if (availability > maxAvailability) {
-                    maxAvailability = availability;
-                    minOccupancyAt = time;
-                }
-                if (availability < minAvailability) {
-                    minAvailability = availability;
-                    maxOccupancyAt = time;
-                }
-            }
-
-            ParkingStatsResponse response = calculateParkingStats(data, availabilities);
+            SlotAggregate day = aggregateOf(data, mode).day(dayOfWeek);
+            ParkingStatsResponse response = calculateParkingStats(data, day.averageAvailability(), day.distribution());
             result.add(new DailyParkingStatsResponse(
-                    response.parkingInfo(), response.stats(), maxOccupancyAt, minOccupancyAt));
+                    response.parkingInfo(),
+                    response.stats(),
+                    day.lowestAvailabilityAt(),
+                    day.highestAvailabilityAt()));
         }
         return result;
     }
 
-    private static List<WeeklyParkingStatsResponse> processParkingDataWeekly(Collection<ParkingData> dataList) {
+    private List<WeeklyParkingStatsResponse> processParkingDataWeekly(
+            Collection<ParkingData> dataList, AveragingMode mode) {
         List<WeeklyParkingStatsResponse> result = new ArrayList<>();
         for (ParkingData data : dataList) {
-            List<Double> availabilities = new ArrayList<>();
-            OccupancyInfo maxOccupancyInfo = null;
-            OccupancyInfo minOccupancyInfo = null;
-            double maxAvailability = Double.NEGATIVE_INFINITY;
-            double minAvailability = Double.POSITIVE_INFINITY;
-
-            for (Map.Entry<DayOfWeek, Map<LocalTime, AvailabilityData>> dailyEntry :
-                    data.freeSpotsHistory().entrySet()) {
-                DayOfWeek day = dailyEntry.getKey();
-                for (Map.Entry<LocalTime, AvailabilityData> timeEntry :
-                        dailyEntry.getValue().entrySet()) {
-                    LocalTime time = timeEntry.getKey();
-                    double availability = timeEntry.getValue().averageAvailability();
-                    availabilities.add(availability);
-
-                    OccupancyInfo occupancyInfo = new OccupancyInfo(day, time);
-                    if (availability > maxAvailability) {
-                        maxAvailability = availability;
-                        minOccupancyInfo = occupancyInfo;
-                    }
-                    if (availability < minAvailability) {
-                        minAvailability = availability;
-                        maxOccupancyInfo = occupancyInfo;
-                    }
-                }
-            }
-
-            ParkingStatsResponse response = calculateParkingStats(data, availabilities);
+            SlotAggregate week = aggregateOf(data, mode).week();
+            ParkingStatsResponse response =
+                    calculateParkingStats(data, week.averageAvailability(), week.distribution());
             result.add(new WeeklyParkingStatsResponse(
-                    response.parkingInfo(), response.stats(), maxOccupancyInfo, minOccupancyInfo));
+                    response.parkingInfo(),
+                    response.stats(),
+                    occupancyInfo(week.lowestAvailabilityDay(), week.lowestAvailabilityAt()),
+                    occupancyInfo(week.highestAvailabilityDay(), week.highestAvailabilityAt())));
         }
         return result;
     }
 
-    private static ParkingStatsResponse calculateParkingStats(ParkingData data, List<Double> availabilities) {
-        double averageAvailability = availabilities.stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+    /*
+     * Aggregates are maintained by the repository on every fetch; data the repository has no aggregate for yet is
+     * summarized on the spot, with the same result.
+     */
+    private ParkingAggregate aggregateOf(ParkingData data, AveragingMode mode) {
+        ParkingAggregate aggregate = mode == AveragingMode.DECAYED
+                ? dataRepository.getDecayedAggregate(data.parkingId())
+                : dataRepository.getAggregate(data.parkingId());
+        return aggregate != null ? aggregate : ParkingAggregate.of(data);
+    }
+
+    /* Samples taken at the given time on any day of the week, or null when the lot keeps no sketches. */
+    @Nullable
+    private static AvailabilitySketch distributionAt(ParkingData data, LocalTime time) {
+        WeeklyHistogram histogram = data.histogram();
+        if (histogram == null || !histogram.fits(time)) return null;
+        AvailabilitySketch distribution = new AvailabilitySketch();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            AvailabilitySketch daily = histogram.sketch(day, time);
+            if (daily != null) distribution.merge(daily);
+        }
+        return distribution;
+    }
+
+    @Nullable
+    private static AvailabilityPercentiles percentiles(@Nullable AvailabilitySketch distribution) {
+        if (distribution == null || distribution.isEmpty()) return null;
+        return new AvailabilityPercentiles(
+                round(distribution.quantile(0.1)),
+                round(distribution.quantile(0.5)),
+                round(distribution.quantile(0.9)));
+    }
+
+    @Nullable
+    private static OccupancyInfo occupancyInfo(@Nullable DayOfWeek day, @Nullable LocalTime time) {
+        return day == null ? null : new OccupancyInfo(day, time);
+    }
+
+    private static ParkingStatsResponse calculateParkingStats(
+            ParkingData data, double averageAvailability, @Nullable AvailabilitySketch distribution) {
         ParkingInfo info = ParkingInfo.builder()
                 .parkingId(data.parkingId())
                 .totalSpots(data.totalSpots())
@@ -196,6 +211,7 @@ record ParkingStatsServiceImpl(
         ParkingStats stats = ParkingStats.builder()
                 .averageAvailability(round(averageAvailability))
                 .averageFreeSpots((int) (averageAvailability * data.totalSpots()))
+                .availabilityPercentiles(percentiles(distribution))
                 .build();
         return new ParkingStatsResponse(info, stats);
     }
@@ -205,12 +221,15 @@ record ParkingStatsServiceImpl(
         List<CollectiveDailyParkingStats> result = new ArrayList<>();
         for (ParkingData data : dataList) {
             ParkingInfo info = new ParkingInfo(data.parkingId(), data.totalSpots());
+            WeeklyHistogram histogram = data.histogram();
             Map<LocalTime, ParkingStats> statsMap = new TreeMap<>();
             data.freeSpotsHistory().getOrDefault(dayOfWeek, Map.of()).forEach((key, value) -> {
                 double availability = value.averageAvailability();
                 ParkingStats stats = ParkingStats.builder()
                         .averageAvailability(round(availability))
                         .averageFreeSpots((int) (availability * data.totalSpots()))
+                        .availabilityPercentiles(
+                                percentiles(histogram == null ? null : histogram.sketch(dayOfWeek, key)))
                         .build();
                 statsMap.put(key, stats);
             });
@@ -224,6 +243,7 @@ record ParkingStatsServiceImpl(
         List<CollectiveWeeklyParkingStats> result = new ArrayList<>();
         for (ParkingData data : dataList) {
             ParkingInfo info = new ParkingInfo(data.parkingId(), data.totalSpots());
+            WeeklyHistogram histogram = data.histogram();
             Map<DayOfWeek, Map<LocalTime, ParkingStats>> statsMap = new TreeMap<>();
             data.freeSpotsHistory().forEach((day, dailyHistory) -> {
                 Map<LocalTime, ParkingStats> dailyStats = new TreeMap<>();
@@ -233,6 +253,7 @@ record ParkingStatsServiceImpl(
                     ParkingStats stats = ParkingStats.builder()
                             .averageAvailability(round(availability))
                             .averageFreeSpots((int) (availability * data.totalSpots()))
+                            .availabilityPercentiles(percentiles(histogram == null ? null : histogram.sketch(day, key)))
                             .build();
                     dailyStats.put(key, stats);
                 });
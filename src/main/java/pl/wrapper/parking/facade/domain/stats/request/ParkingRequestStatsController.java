@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import pl.wrapper.parking.facade.ParkingRequestStatsService;
+import pl.wrapper.parking.facade.dto.stats.request.EndpointLatencyStats;
 import pl.wrapper.parking.facade.dto.stats.request.EndpointStats;
 
 @RestController
@@ -119,4 +120,28 @@ class ParkingRequestStatsController {
         Map<String, Double> result = parkingRequestStatsService.getDailyRequestStats();
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
+
+    @Operation(
+            summary = "get request latency percentiles",
+            description =
+                    "Returns p50, p90, p99 and p99.9 handler latency in milliseconds for each endpoint, overall and for every timeframe that saw requests since startup")
+    @ApiResponse(
+            responseCode = "200",
+            description = "map of latency statistics, key - endpoint name, value - overall and per timeframe latency",
+            content =
+                    @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Map.class),
+                            examples =
+                                    @ExampleObject(
+                                            name = "example",
+                                            description = "key: String -> value: EndpointLatencyStats",
+                                            value =
+                                                    "{ /parkings/free: { total: { requests: 120, p50Millis: 1.2, p90Millis: 3.5, p99Millis: 12.0, p999Millis: 40.1 }, timeframes: [{ 08:00 - 08:30: { requests: 20, p50Millis: 1.1, p90Millis: 2.9, p99Millis: 9.8, p999Millis: 9.8 } }] } }")))
+    @GetMapping(path = "/latency", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, EndpointLatencyStats>> getLatencyStats() {
+        log.info("Fetching parking requests latency stats");
+        Map<String, EndpointLatencyStats> result = parkingRequestStatsService.getLatencyStats();
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
 }
@@ -1,14 +1,21 @@
 package pl.wrapper.parking.facade.domain.stats.request;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 import pl.wrapper.parking.facade.ParkingRequestStatsService;
+import pl.wrapper.parking.facade.dto.stats.request.EndpointLatencyStats;
 import pl.wrapper.parking.facade.dto.stats.request.EndpointStats;
+import pl.wrapper.parking.facade.dto.stats.request.LatencyStats;
 import pl.wrapper.parking.infrastructure.inMemory.ParkingRequestRepository;
+import pl.wrapper.parking.infrastructure.inMemory.RequestLatencyRepository;
 import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointLatency;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.LatencyHistogram;
 import pl.wrapper.parking.infrastructure.inMemory.dto.request.TimeframeStatistic;
 
 @Service
@@ -16,10 +23,14 @@ class ParkingRequestStatsServiceImpl implements ParkingRequestStatsService {
 
     private final ParkingRequestRepository requestRepository;
 
+    private final RequestLatencyRepository latencyRepository;
+
     private final List<String> formattedTimeframes;
 
-    public ParkingRequestStatsServiceImpl(ParkingRequestRepository requestRepository) {
+    public ParkingRequestStatsServiceImpl(
+            ParkingRequestRepository requestRepository, RequestLatencyRepository latencyRepository) {
         this.requestRepository = requestRepository;
+        this.latencyRepository = latencyRepository;
         this.formattedTimeframes = getFormattedTimeframes(
                 requestRepository.getTotalEndpoint().getTimeframeLength(),
                 requestRepository.getTotalEndpoint().getTimeframeStatistics().length);
@@ -42,7 +53,7 @@ class ParkingRequestStatsServiceImpl implements ParkingRequestStatsService {
 
     @Override
     public List<Map.Entry<String, Double>> getRequestPeakTimes() {
-        EndpointData totalEndpoint = requestRepository.getTotalEndpoint();
+        EndpointData totalEndpoint = requestRepository.getTotalEndpoint().snapshot();
         List<Map.Entry<String, Double>> timeframesWithAverage = getTimeframesWithAverage(totalEndpoint);
 
         return timeframesWithAverage.stream()
@@ -63,6 +74,34 @@ class ParkingRequestStatsServiceImpl implements ParkingRequestStatsService {
         }));
     }
 
+    @Override
+    public Map<String, EndpointLatencyStats> getLatencyStats() {
+        return latencyRepository.fetchAll().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> {
+                    EndpointLatency latency = entry.getValue();
+                    List<Map.Entry<String, LatencyStats>> timeframes = new ArrayList<>();
+                    for (int i = 0; i < latency.getTimeframeCount(); ++i) {
+                        LatencyHistogram histogram = latency.getTimeframe(i);
+                        if (histogram != null)
+                            timeframes.add(Map.entry(formattedTimeframes.get(i), toStats(histogram)));
+                    }
+                    return new EndpointLatencyStats(toStats(latency.getTotal()), timeframes);
+                }));
+    }
+
+    private static LatencyStats toStats(LatencyHistogram histogram) {
+        return new LatencyStats(
+                histogram.totalCount(),
+                toMillis(histogram.valueAtPercentile(50)),
+                toMillis(histogram.valueAtPercentile(90)),
+                toMillis(histogram.valueAtPercentile(99)),
+                toMillis(histogram.valueAtPercentile(99.9)));
+    }
+
+    private static double toMillis(double micros) {
+        return BigDecimal.valueOf(micros / 1000).setScale(3, RoundingMode.HALF_UP).doubleValue();
+    }
+
     private List<Map.Entry<String, Double>> getTimeframesWithAverage(EndpointData endpointData) {
         List<Map.Entry<String, Double>> averages = new ArrayList<>();
         for (int i = 0; i < endpointData.getTimeframeStatistics().length; ++i) {
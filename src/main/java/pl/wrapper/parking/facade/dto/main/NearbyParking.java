@@ -0,0 +1,8 @@
+package pl.wrapper.parking.facade.dto.main;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+public record NearbyParking(
+        @Schema(implementation = ParkingResponse.class) ParkingResponse parking,
+        @Schema(example = "1.27") double distanceKm) {}
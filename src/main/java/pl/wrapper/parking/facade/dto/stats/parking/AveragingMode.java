@@ -0,0 +1,10 @@
+package pl.wrapper.parking.facade.dto.stats.parking;
+
+/*
+ * How slot availabilities are averaged over the weeks: CUMULATIVE weighs every sample since the start equally,
+ * DECAYED uses an exponentially weighted average that follows recent weeks.
+ */
+public enum AveragingMode {
+    CUMULATIVE,
+    DECAYED
+}
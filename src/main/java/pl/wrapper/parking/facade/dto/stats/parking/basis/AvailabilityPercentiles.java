@@ -0,0 +1,8 @@
+package pl.wrapper.parking.facade.dto.stats.parking.basis;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record AvailabilityPercentiles(
+        @Schema(example = "0.412") double p10,
+        @Schema(example = "0.725") double p50,
+        @Schema(example = "0.913") double p90) {}
@@ -2,7 +2,16 @@ package pl.wrapper.parking.facade.dto.stats.parking.basis;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
+import org.springframework.lang.Nullable;
 
 @Builder
 public record ParkingStats(
-        @Schema(example = "0.723") double averageAvailability, @Schema(example = "37") int averageFreeSpots) {}
+        @Schema(example = "0.723") double averageAvailability,
+        @Schema(example = "37") int averageFreeSpots,
+        @Schema(description = "Spread of the sampled availability, null when no samples were sketched") @Nullable
+                AvailabilityPercentiles availabilityPercentiles) {
+
+    public ParkingStats(double averageAvailability, int averageFreeSpots) {
+        this(averageAvailability, averageFreeSpots, null);
+    }
+}
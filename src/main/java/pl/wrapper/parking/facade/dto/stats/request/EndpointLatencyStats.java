@@ -0,0 +1,6 @@
+package pl.wrapper.parking.facade.dto.stats.request;
+
+import java.util.List;
+import java.util.Map;
+
+public record EndpointLatencyStats(LatencyStats total, List<Map.Entry<String, LatencyStats>> timeframes) {}
@@ -0,0 +1,3 @@
+package pl.wrapper.parking.facade.dto.stats.request;
+
+public record LatencyStats(long requests, double p50Millis, double p90Millis, double p99Millis, double p999Millis) {}
@@ -0,0 +1,27 @@
+package pl.wrapper.parking.infrastructure.configuration;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import pl.wrapper.parking.infrastructure.util.PrettyPrintUtils;
+
+@Configuration
+class JsonConverterConfiguration {
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            @NonNull
+            protected ObjectWriter customizeWriter(
+                    @NonNull ObjectWriter writer, @Nullable MimeType mimeType, @NonNull JavaType javaType) {
+                return PrettyPrintUtils.isPrettyPrintRequested() ? writer.withDefaultPrettyPrinter() : writer;
+            }
+        };
+    }
+}
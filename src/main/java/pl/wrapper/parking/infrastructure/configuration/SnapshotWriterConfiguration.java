@@ -0,0 +1,18 @@
+package pl.wrapper.parking.infrastructure.configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SnapshotWriterConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService snapshotWriter() {
+        return Executors.newSingleThreadExecutor(Thread.ofPlatform()
+                .name("snapshot-writer")
+                .daemon(true)
+                .factory());
+    }
+}
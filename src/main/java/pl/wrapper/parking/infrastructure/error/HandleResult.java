@@ -1,27 +1,14 @@
 package pl.wrapper.parking.infrastructure.error;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import java.text.SimpleDateFormat;
-import lombok.SneakyThrows;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 public class HandleResult {
-    private static final ObjectWriter ow = new ObjectMapper()
-            .enable(SerializationFeature.INDENT_OUTPUT)
-            .registerModule(new JavaTimeModule())
-            .setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"))
-            .writerWithDefaultPrettyPrinter();
-
-    @SneakyThrows
-    public static ResponseEntity<String> handleResult(Result<?> toHandle, HttpStatus onSuccess, String uri) {
-        if (toHandle.isSuccess()) return new ResponseEntity<>(ow.writeValueAsString(toHandle.getData()), onSuccess);
+    public static ResponseEntity<Object> handleResult(Result<?> toHandle, HttpStatus onSuccess, String uri) {
+        if (toHandle.isSuccess()) return new ResponseEntity<>(toHandle.getData(), onSuccess);
         Error error = toHandle.getError();
         ErrorWrapper errorWrapper = getInfoByError(error, uri, onSuccess);
-        return new ResponseEntity<>(ow.writeValueAsString(errorWrapper), errorWrapper.occurredStatus());
+        return new ResponseEntity<>(errorWrapper, errorWrapper.occurredStatus());
     }
 
     private static ErrorWrapper getInfoByError(Error error, String uri, HttpStatus onSuccess) {
@@ -36,6 +23,8 @@ public class HandleResult {
                     "Parking of address: " + e.address() + " not found", onSuccess, uri, HttpStatus.NOT_FOUND);
             case ParkingError.NoFreeParkingSpotsAvailable ignored -> new ErrorWrapper(
                     "No free parking spots available", onSuccess, uri, HttpStatus.NOT_FOUND);
+            case ParkingError.ParkingChangesNotAvailable ignored -> new ErrorWrapper(
+                    "Parking data has not been fetched yet", onSuccess, uri, HttpStatus.SERVICE_UNAVAILABLE);
         };
     }
 }
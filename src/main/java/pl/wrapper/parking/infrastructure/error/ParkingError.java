@@ -11,4 +11,6 @@ public sealed interface ParkingError extends Error {
     record ParkingNotFoundByAddress(String address) implements ParkingError {}
 
     record NoFreeParkingSpotsAvailable() implements ParkingError {}
+
+    record ParkingChangesNotAvailable() implements ParkingError {}
 }
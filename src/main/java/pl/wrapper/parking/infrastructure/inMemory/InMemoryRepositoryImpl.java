@@ -1,31 +1,56 @@
 package pl.wrapper.parking.infrastructure.inMemory;
 
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.serializer.support.SerializationFailedException;
 import org.springframework.scheduling.annotation.Scheduled;
+import pl.wrapper.parking.infrastructure.inMemory.codec.JavaSerializationCodec;
+import pl.wrapper.parking.infrastructure.inMemory.codec.SnapshotCodec;
 
+@Slf4j
 public abstract class InMemoryRepositoryImpl<K extends Serializable, V extends Serializable>
         implements InMemoryRepository<K, V> {
-
     protected final transient File file;
     protected Map<K, V> dataMap;
     protected final V defaultValue;
+    private final SnapshotCodec<K, V> codec;
+    private final Executor snapshotWriter;
+    private long encodedSnapshots;
+    private long writtenSnapshot;
+
+    @Value("${serialization.generations}")
+    private int generations = 3;
 
     public InMemoryRepositoryImpl(String filePath, Map<K, V> map, V defaultValue) {
+        this(filePath, map, defaultValue, new JavaSerializationCodec<>(), Runnable::run);
+    }
+
+    public InMemoryRepositoryImpl(
+            String filePath, Map<K, V> map, V defaultValue, SnapshotCodec<K, V> codec, Executor snapshotWriter) {
         this.file = new File(filePath);
         this.defaultValue = defaultValue;
+        this.codec = codec;
+        this.snapshotWriter = snapshotWriter;
 
         this.dataMap = map;
     }
@@ -55,43 +80,120 @@ public abstract class InMemoryRepositoryImpl<K extends Serializable, V extends S
     }
 
     @PostConstruct
-    @SuppressWarnings("unchecked")
     protected void init() {
-        if (!file.exists()) return;
+        if (storesSnapshots()) loadSnapshot();
+        afterLoad();
+    }
 
-        try (FileInputStream fileIn = new FileInputStream(file);
-                ObjectInputStream in = new ObjectInputStream(fileIn)) {
+    protected boolean storesSnapshots() {
+        return true;
+    }
 
-            this.dataMap = (Map<K, V>) in.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            throw new SerializationFailedException(createExceptionForIOE("Deserialization", e));
+    protected void afterLoad() {}
+
+    protected void flushStore() {}
+
+    protected Runnable snapshotCommitAction() {
+        return () -> {};
+    }
+
+    protected void loadSnapshot() {
+        Exception lastFailure = null;
+        for (File generation : generationFiles()) {
+            if (!generation.exists()) continue;
+
+            try (InputStream in = new BufferedInputStream(new FileInputStream(generation))) {
+                this.dataMap = codec.read(in);
+                if (lastFailure != null) log.warn("Restored {} from older snapshot {}", file, generation);
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not read snapshot {}, trying older generation. Reason: {}", generation, e.getMessage());
+                lastFailure = e;
+            }
         }
+        if (lastFailure != null)
+            throw new SerializationFailedException(createExceptionForIOE("Deserialization", lastFailure));
     }
 
     @PreDestroy
-    private void selfSerialize() {
-        File parent = file.getParentFile();
-        if (parent != null && !parent.exists())
-            if (!parent.mkdirs())
-                throw new SerializationFailedException(
-                        "Failed to create directory for path: " + file.getAbsolutePath());
+    protected void selfSerialize() {
+        if (!storesSnapshots()) {
+            flushStore();
+            return;
+        }
+        writeSnapshot(encodeSnapshot());
+    }
 
-        try (FileOutputStream fileOut = new FileOutputStream(file);
-                ObjectOutputStream out = new ObjectOutputStream(fileOut)) {
+    @Scheduled(fixedRateString = "#{60 * 1000 * ${serialization.timeStamp.inMinutes}}", initialDelay = 10 * 1000)
+    protected void periodicSerialize() {
+        if (!storesSnapshots()) {
+            snapshotWriter.execute(this::flushStore);
+            return;
+        }
+        Snapshot snapshot = encodeSnapshot();
+        snapshotWriter.execute(() -> {
+            try {
+                writeSnapshot(snapshot);
+            } catch (SerializationFailedException e) {
+                log.error(e.getMessage());
+            }
+        });
+    }
 
-            out.writeObject(dataMap);
+    private synchronized Snapshot encodeSnapshot() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            codec.write(dataMap, out);
         } catch (IOException e) {
             throw new SerializationFailedException(createExceptionForIOE("Serialization", e));
         }
+        return new Snapshot(++encodedSnapshots, out.toByteArray(), snapshotCommitAction());
     }
 
-    @Scheduled(fixedRateString = "#{60 * 1000 * ${serialization.timeStamp.inMinutes}}", initialDelay = 10 * 1000)
-    protected void periodicSerialize() {
-        selfSerialize();
+    /*
+     * A periodic write still queued on the writer can run after a newer one, e.g. the final write on shutdown. It is
+     * skipped, so it neither replaces the newer file nor runs its commit action; the newer commit action covers it.
+     */
+    private void writeSnapshot(Snapshot snapshot) {
+        synchronized (file) {
+            if (snapshot.sequence() <= writtenSnapshot) {
+                log.debug(
+                        "Skipping snapshot {} of {}, snapshot {} is already written",
+                        snapshot.sequence(),
+                        file,
+                        writtenSnapshot);
+                return;
+            }
+            try {
+                SnapshotFiles.writeAtomically(file.toPath(), snapshot.bytes(), this::rotateGenerations);
+            } catch (IOException e) {
+                throw new SerializationFailedException(createExceptionForIOE("Serialization", e));
+            }
+            writtenSnapshot = snapshot.sequence();
+            snapshot.onWritten().run();
+        }
+    }
+
+    private void rotateGenerations() throws IOException {
+        List<File> files = generationFiles();
+        for (int i = files.size() - 1; i > 0; i--) {
+            Path newer = files.get(i - 1).toPath();
+            if (Files.exists(newer)) Files.move(newer, files.get(i).toPath(), REPLACE_EXISTING);
+        }
+    }
+
+    private List<File> generationFiles() {
+        List<File> files = new ArrayList<>();
+        files.add(file);
+        for (int generation = 1; generation < generations; generation++)
+            files.add(new File(file.getPath() + "." + generation));
+        return files;
     }
 
     private static <E extends Exception> String createExceptionForIOE(String methodType, E e) {
         return methodType + " failed for: " + InMemoryRepositoryImpl.class.getSimpleName() + ". Message: "
                 + e.getMessage();
     }
+
+    private record Snapshot(long sequence, byte[] bytes, Runnable onWritten) {}
 }
@@ -0,0 +1,153 @@
+package pl.wrapper.parking.infrastructure.inMemory;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
+
+/*
+ * Append-only journal of the slots written by ParkingDataRepository.handleData(). Every entry carries the resulting
+ * AvailabilityData instead of the raw sample, so replaying is idempotent: an entry only wins over a slot with fewer
+ * samples, and segments already covered by a snapshot can be replayed again without changing anything.
+ * A snapshot closes the current segment; the closed segments are deleted once that snapshot is on disk.
+ */
+@Slf4j
+final class ParkingDataJournal {
+    private static final int ENTRY_SIZE = 4 + 4 + 1 + 4 + 4 + 8;
+    private static final int RECORD_SIZE = ENTRY_SIZE + 4;
+
+    private final Path directory;
+    private final String prefix;
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel current;
+
+    ParkingDataJournal(String snapshotPath) {
+        Path base = Path.of(snapshotPath + ".journal").toAbsolutePath();
+        this.directory = base.getParent();
+        this.prefix = base.getFileName() + ".";
+        if (!Files.isDirectory(directory)) return;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path segment : stream) {
+                String suffix = segment.getFileName().toString().substring(prefix.length());
+                if (suffix.chars().allMatch(Character::isDigit) && !suffix.isEmpty())
+                    segments.put(Long.parseLong(suffix), segment);
+            }
+        } catch (IOException e) {
+            log.warn("Could not list journal segments in {}. Reason: {}", directory, e.getMessage());
+        }
+    }
+
+    synchronized void append(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) return;
+
+        ByteBuffer buffer = ByteBuffer.allocate(entries.size() * RECORD_SIZE);
+        CRC32C crc = new CRC32C();
+        for (Entry entry : entries) {
+            int start = buffer.position();
+            buffer.putInt(entry.parkingId())
+                    .putInt(entry.totalSpots())
+                    .put((byte) entry.day().getValue())
+                    .putInt(entry.time().toSecondOfDay())
+                    .putInt(entry.availability().sampleCount())
+                    .putDouble(entry.availability().averageAvailability());
+            crc.reset();
+            crc.update(buffer.array(), start, ENTRY_SIZE);
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+
+        FileChannel channel = currentSegment();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        channel.force(false);
+    }
+
+    synchronized Runnable rotate() {
+        if (current == null) return () -> {};
+
+        long closedSegment = segments.lastKey();
+        try {
+            current.close();
+        } catch (IOException e) {
+            log.warn("Could not close journal segment {}. Reason: {}", segments.get(closedSegment), e.getMessage());
+        }
+        current = null;
+        return () -> deleteUpTo(closedSegment);
+    }
+
+    synchronized int replay(Consumer<Entry> consumer) {
+        int replayed = 0;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        CRC32C crc = new CRC32C();
+        for (Path segment : segments.values()) {
+            try (FileChannel channel = FileChannel.open(segment)) {
+                while (true) {
+                    record.clear();
+                    while (record.hasRemaining() && channel.read(record) >= 0) {}
+                    if (record.hasRemaining()) break;
+
+                    crc.reset();
+                    crc.update(record.array(), 0, ENTRY_SIZE);
+                    if ((int) crc.getValue() != record.getInt(ENTRY_SIZE)) {
+                        log.warn("Journal segment {} ends with a torn entry, skipping the rest", segment);
+                        break;
+                    }
+                    consumer.accept(decode(record));
+                    replayed++;
+                }
+            } catch (IOException e) {
+                log.warn("Could not replay journal segment {}. Reason: {}", segment, e.getMessage());
+            }
+        }
+        return replayed;
+    }
+
+    private FileChannel currentSegment() throws IOException {
+        if (current != null) return current;
+
+        Files.createDirectories(directory);
+        long next = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Path segment = directory.resolve(prefix + next);
+        current = FileChannel.open(segment, CREATE, WRITE, APPEND);
+        segments.put(next, segment);
+        return current;
+    }
+
+    private synchronized void deleteUpTo(long segmentId) {
+        for (Path segment : new ArrayList<>(segments.headMap(segmentId, true).values())) {
+            try {
+                Files.deleteIfExists(segment);
+                segments.values().remove(segment);
+            } catch (IOException e) {
+                log.warn("Could not delete compacted journal segment {}. Reason: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    private static Entry decode(ByteBuffer record) {
+        record.rewind();
+        return new Entry(
+                record.getInt(),
+                record.getInt(),
+                DayOfWeek.of(record.get()),
+                LocalTime.ofSecondOfDay(record.getInt()),
+                new AvailabilityData(record.getInt(), record.getDouble()));
+    }
+
+    record Entry(int parkingId, int totalSpots, DayOfWeek day, LocalTime time, AvailabilityData availability) {}
+}
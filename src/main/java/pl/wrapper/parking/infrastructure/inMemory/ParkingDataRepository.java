@@ -1,75 +1,317 @@
 package pl.wrapper.parking.infrastructure.inMemory;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import pl.wrapper.parking.infrastructure.inMemory.codec.ParkingDataCodec;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ArrayWeeklyHistogram;
 import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilitySketch;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingAggregate;
 import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.WeeklyHistogram;
+import pl.wrapper.parking.infrastructure.inMemory.grid.MappedAvailabilityGrid;
+import pl.wrapper.parking.infrastructure.util.DataVersion;
 import pl.wrapper.parking.infrastructure.util.DateTimeUtils;
-import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
+import pl.wrapper.parking.pwrResponseHandler.ParkingSnapshotSink;
 import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
 
 @Component("parkingDataRepository")
 @Slf4j
-public class ParkingDataRepository extends InMemoryRepositoryImpl<Integer, ParkingData> {
+public class ParkingDataRepository extends InMemoryRepositoryImpl<Integer, ParkingData>
+        implements ParkingSnapshotSink {
 
     @Value("${pwr-api.data-fetch.minutes}")
     private Integer minuteInterval;
 
-    private final PwrApiServerCaller pwrApiServerCaller;
+    /* Every slot is sampled once a week, so a half-life in weeks is a half-life in samples. */
+    @Value("${pwr-api.stats.decay.half-life-weeks}")
+    private Double decayHalfLifeWeeks;
+
+    private final ParkingDataJournal journal;
+    private final boolean mappedBackend;
+    private final Map<Integer, ParkingAggregate> aggregates = new ConcurrentHashMap<>();
+    private final Map<Integer, ParkingAggregate> decayedAggregates = new ConcurrentHashMap<>();
+    private MappedAvailabilityGrid grid;
+    private LocalDateTime lastRecordedSlot;
+
+    @Getter
+    private volatile DataVersion dataVersion = DataVersion.changedNow();
 
     public ParkingDataRepository(
             @Value("${serialization.location.parkingData}") String saveToLocationPath,
-            PwrApiServerCaller pwrApiServerCaller) {
-        super(saveToLocationPath, new HashMap<>(), null);
-        this.pwrApiServerCaller = pwrApiServerCaller;
+            @Qualifier("snapshotWriter") Executor snapshotWriter,
+            @Value("${serialization.parkingData.backend}") String backend) {
+        super(saveToLocationPath, new HashMap<>(), null, new ParkingDataCodec(), snapshotWriter);
+        this.journal = new ParkingDataJournal(saveToLocationPath);
+        this.mappedBackend = switch (backend) {
+            case "snapshot" -> false;
+            case "mapped" -> true;
+            default -> throw new IllegalArgumentException("Unknown parking data backend: " + backend);
+        };
+    }
+
+    @Override
+    protected boolean storesSnapshots() {
+        return !mappedBackend;
+    }
+
+    @Override
+    protected void afterLoad() {
+        if (!mappedBackend) {
+            convertToHistograms();
+            replayJournal();
+            refreshAggregates(dataMap.keySet());
+            return;
+        }
+
+        try {
+            grid = MappedAvailabilityGrid.open(Path.of(file.getPath() + ".grid"), minuteInterval);
+            if (grid.isEmpty() && file.exists()) importSnapshot();
+        } catch (IOException e) {
+            throw new SerializationFailedException(
+                    "Failed to open availability grid for path: " + file.getAbsolutePath() + ". " + e.getMessage());
+        }
+        dataMap = grid.parkings();
+        refreshAggregates(dataMap.keySet());
+    }
+
+    @Nullable
+    public ParkingAggregate getAggregate(int parkingId) {
+        return aggregates.get(parkingId);
+    }
+
+    @Nullable
+    public ParkingAggregate getDecayedAggregate(int parkingId) {
+        return decayedAggregates.get(parkingId);
+    }
+
+    @Override
+    protected void flushStore() {
+        if (grid != null) grid.force();
     }
 
-    @Scheduled(fixedRateString = "${pwr-api.data-fetch.minutes}", timeUnit = TimeUnit.MINUTES)
-    private void handleData() {
-        LocalDateTime currentDateTime = DateTimeUtils.roundToNearestInterval(LocalDateTime.now(), minuteInterval);
+    @Override
+    protected Runnable snapshotCommitAction() {
+        return journal.rotate();
+    }
+
+    /* Ingest ticks come more often than slots; only the first snapshot rounding to a slot is recorded in it. */
+    @Override
+    public synchronized void onSnapshot(ParkingSnapshot snapshot) {
+        LocalDateTime slot = DateTimeUtils.roundToNearestInterval(snapshot.fetchedAt(), minuteInterval);
+        if (slot.equals(lastRecordedSlot)) return;
+        lastRecordedSlot = slot;
+        handleData(snapshot.parkings(), slot);
+    }
+
+    private void handleData(List<ParkingResponse> parkings, LocalDateTime currentDateTime) {
         LocalTime currentTime = currentDateTime.toLocalTime();
         DayOfWeek currentDay = currentDateTime.getDayOfWeek();
 
         log.info("Saving parking data with rounded time: {}, day: {}", currentTime, currentDay);
 
-        List<ParkingResponse> parkings = pwrApiServerCaller.fetchParkingData();
+        List<ParkingDataJournal.Entry> journalEntries = new ArrayList<>(parkings.size());
         for (ParkingResponse parking : parkings) {
             int parkingId = parking.parkingId();
             double availability = (double) parking.freeSpots() / parking.totalSpots();
 
+            if (grid != null) {
+                recordInGrid(parking, currentDay, currentTime, availability);
+                continue;
+            }
+
             ParkingData parkingData = get(parkingId);
             if (parkingData == null) {
-                parkingData = ParkingData.builder()
-                        .parkingId(parkingId)
-                        .totalSpots(parking.totalSpots())
-                        .freeSpotsHistory(new HashMap<>())
-                        .build();
+                parkingData = newParkingData(parkingId, parking.totalSpots());
+                add(parkingId, parkingData);
             }
 
-            Map<LocalTime, AvailabilityData> dailyHistory =
-                    parkingData.freeSpotsHistory().computeIfAbsent(currentDay, k -> new HashMap<>());
-            AvailabilityData availabilityData =
-                    dailyHistory.computeIfAbsent(currentTime, k -> new AvailabilityData(0, 0.0));
+            AvailabilityData newAvailabilityData = record(parkingData, currentDay, currentTime, availability);
+            journalEntries.add(new ParkingDataJournal.Entry(
+                    parkingId, parkingData.totalSpots(), currentDay, currentTime, newAvailabilityData));
+        }
 
-            int newSampleCount = availabilityData.sampleCount() + 1;
-            double newAvgAvailability =
-                    (availabilityData.averageAvailability() * availabilityData.sampleCount() + availability)
-                            / newSampleCount;
-            AvailabilityData newAvailabilityData = new AvailabilityData(newSampleCount, newAvgAvailability);
+        if (grid == null) appendToJournal(journalEntries);
+        refreshAggregates(parkings.stream().map(ParkingResponse::parkingId).toList());
 
-            dailyHistory.put(currentTime, newAvailabilityData);
-            add(parkingId, parkingData);
+        dataVersion = DataVersion.changedNow();
+        log.info("Parking data saved successfully. Storage updated.");
+    }
+
+    private ParkingData newParkingData(int parkingId, int totalSpots) {
+        return ParkingData.withHistogram(parkingId, totalSpots, new ArrayWeeklyHistogram(minuteInterval));
+    }
+
+    private AvailabilityData record(ParkingData parkingData, DayOfWeek day, LocalTime time, double availability) {
+        WeeklyHistogram histogram = parkingData.histogram();
+        if (histogram != null && histogram.fits(time)) {
+            AvailabilityData recorded = histogram.record(day, time, availability);
+            histogram.decay(day, time, availability, decayWeight());
+            return recorded;
         }
+        if (histogram != null) parkingData = withMapHistory(parkingData);
 
-        log.info("Parking data saved successfully. Storage updated.");
+        Map<LocalTime, AvailabilityData> dailyHistory =
+                parkingData.freeSpotsHistory().computeIfAbsent(day, k -> new HashMap<>());
+        AvailabilityData availabilityData = dailyHistory.computeIfAbsent(time, k -> new AvailabilityData(0, 0.0));
+
+        int newSampleCount = availabilityData.sampleCount() + 1;
+        double newAvgAvailability =
+                (availabilityData.averageAvailability() * availabilityData.sampleCount() + availability)
+                        / newSampleCount;
+        AvailabilityData newAvailabilityData = new AvailabilityData(newSampleCount, newAvgAvailability);
+        dailyHistory.put(time, newAvailabilityData);
+        return newAvailabilityData;
+    }
+
+    /*
+     * Older snapshots decode into nested maps, newer ones into histograms of the interval they were written with;
+     * lots whose slots all line up with the current interval are moved into histograms of that interval, the rest
+     * (e.g. data gathered with another interval) keep their maps. Sketches and decayed averages move along with
+     * their slots.
+     */
+    private void convertToHistograms() {
+        dataMap.replaceAll((parkingId, parkingData) -> {
+            WeeklyHistogram source = parkingData.histogram();
+            if (source != null && source.slotMinutes() == minuteInterval) return parkingData;
+            if (!fitsHistogram(parkingData)) return source == null ? parkingData : mapHistoryCopy(parkingData);
+
+            ParkingData converted = newParkingData(parkingId, parkingData.totalSpots());
+            WeeklyHistogram target = converted.histogram();
+            target.putAll(parkingData.freeSpotsHistory());
+            if (source != null)
+                parkingData.freeSpotsHistory().forEach((day, slots) -> slots.keySet().forEach(time -> {
+                    AvailabilitySketch sketch = source.sketch(day, time);
+                    if (sketch != null) target.addSketch(day, time, sketch);
+                    double decayed = source.decayedAvailability(day, time);
+                    if (!Double.isNaN(decayed)) target.putDecayedAvailability(day, time, decayed);
+                }));
+            return converted;
+        });
+    }
+
+    private ParkingData withMapHistory(ParkingData parkingData) {
+        ParkingData converted = mapHistoryCopy(parkingData);
+        dataMap.put(converted.parkingId(), converted);
+        return converted;
+    }
+
+    private static ParkingData mapHistoryCopy(ParkingData parkingData) {
+        Map<DayOfWeek, Map<LocalTime, AvailabilityData>> history = new HashMap<>();
+        parkingData.freeSpotsHistory().forEach((day, slots) -> history.put(day, new HashMap<>(slots)));
+        return new ParkingData(parkingData.parkingId(), parkingData.totalSpots(), history);
+    }
+
+    private boolean fitsHistogram(ParkingData parkingData) {
+        WeeklyHistogram probe = new ArrayWeeklyHistogram(minuteInterval);
+        return parkingData.freeSpotsHistory().values().stream()
+                .flatMap(slots -> slots.keySet().stream())
+                .allMatch(probe::fits);
+    }
+
+    private void refreshAggregates(Collection<Integer> parkingIds) {
+        for (Integer parkingId : parkingIds) {
+            ParkingData parkingData = dataMap.get(parkingId);
+            if (parkingData == null) continue;
+            aggregates.put(parkingId, ParkingAggregate.of(parkingData));
+            decayedAggregates.put(parkingId, ParkingAggregate.of(parkingData.decayed()));
+        }
+    }
+
+    private void recordInGrid(ParkingResponse parking, DayOfWeek day, LocalTime time, double availability) {
+        try {
+            grid.record(parking.parkingId(), parking.totalSpots(), day, time, availability);
+            dataMap.computeIfAbsent(parking.parkingId(), grid::parkingData);
+        } catch (IOException e) {
+            log.warn("Could not grow availability grid for parking {}: {}", parking.parkingId(), e.getMessage());
+        }
+    }
+
+    private void importSnapshot() throws IOException {
+        loadSnapshot();
+        replayJournal();
+        for (ParkingData parkingData : dataMap.values()) {
+            for (Map.Entry<DayOfWeek, Map<LocalTime, AvailabilityData>> day :
+                    parkingData.freeSpotsHistory().entrySet()) {
+                for (Map.Entry<LocalTime, AvailabilityData> slot : day.getValue().entrySet())
+                    grid.put(
+                            parkingData.parkingId(),
+                            parkingData.totalSpots(),
+                            day.getKey(),
+                            slot.getKey(),
+                            slot.getValue());
+            }
+        }
+        log.info("Imported {} parking lots from the snapshot into the availability grid", dataMap.size());
+    }
+
+    private void appendToJournal(List<ParkingDataJournal.Entry> entries) {
+        try {
+            journal.append(entries);
+        } catch (IOException e) {
+            log.warn("Could not append to parking data journal, waiting for next snapshot. Reason: {}", e.getMessage());
+        }
+    }
+
+    private void replayJournal() {
+        int replayed = journal.replay(this::applyJournalEntry);
+        if (replayed > 0) log.info("Replayed {} journal entries on top of the parking data snapshot", replayed);
+    }
+
+    private void applyJournalEntry(ParkingDataJournal.Entry entry) {
+        ParkingData parkingData = dataMap.computeIfAbsent(
+                entry.parkingId(), parkingId -> newParkingData(parkingId, entry.totalSpots()));
+        WeeklyHistogram histogram = parkingData.histogram();
+        if (histogram != null && histogram.fits(entry.time())) {
+            recoverSample(histogram, entry);
+            histogram.merge(entry.day(), entry.time(), entry.availability());
+            return;
+        }
+        if (histogram != null) parkingData = withMapHistory(parkingData);
+
+        Map<LocalTime, AvailabilityData> dailyHistory =
+                parkingData.freeSpotsHistory().computeIfAbsent(entry.day(), k -> new HashMap<>());
+        AvailabilityData current = dailyHistory.get(entry.time());
+        if (current == null || current.sampleCount() < entry.availability().sampleCount())
+            dailyHistory.put(entry.time(), entry.availability());
+    }
+
+    /*
+     * Journal entries carry the running mean, not the sample. When the entry is exactly one sample ahead of the slot,
+     * the sample is recovered from the two means so that the slot's sketch and decayed average catch up as well.
+     */
+    private void recoverSample(WeeklyHistogram histogram, ParkingDataJournal.Entry entry) {
+        AvailabilityData current = histogram.get(entry.day(), entry.time());
+        int currentCount = current == null ? 0 : current.sampleCount();
+        int sampleCount = entry.availability().sampleCount();
+        if (sampleCount != currentCount + 1) return;
+
+        double currentSum = current == null ? 0.0 : current.averageAvailability() * currentCount;
+        double sample = entry.availability().averageAvailability() * sampleCount - currentSum;
+        histogram.recordSketchSample(entry.day(), entry.time(), sample);
+        histogram.put(entry.day(), entry.time(), entry.availability());
+        histogram.decay(entry.day(), entry.time(), sample, decayWeight());
+    }
+
+    private double decayWeight() {
+        return WeeklyHistogram.decayWeight(decayHalfLifeWeeks);
     }
 }
@@ -1,38 +1,93 @@
 package pl.wrapper.parking.infrastructure.inMemory;
 
 import java.time.LocalTime;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import pl.wrapper.parking.infrastructure.inMemory.codec.EndpointDataCodec;
 import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData;
 import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointDataFactory;
 
 @Slf4j
 @Component("parkingRequestRepository")
 public class ParkingRequestRepository extends InMemoryRepositoryImpl<String, EndpointData> {
+    public static final String OTHER_ENDPOINT_NAME = "other";
     private static final String TOTAL_ENDPOINT_NAME = "total";
     private final EndpointDataFactory endpointDataFactory;
 
     @Autowired
     public ParkingRequestRepository(
             @Value("${serialization.location.ParkingRequests}") String saveToLocationPath,
-            EndpointDataFactory endpointDataFactory) {
-        super(saveToLocationPath, new HashMap<>(), null);
+            EndpointDataFactory endpointDataFactory,
+            @Qualifier("snapshotWriter") Executor snapshotWriter) {
+        super(saveToLocationPath, new ConcurrentHashMap<>(), null, new EndpointDataCodec(), snapshotWriter);
         this.endpointDataFactory = endpointDataFactory;
         dataMap.put(TOTAL_ENDPOINT_NAME, endpointDataFactory.create());
     }
 
+    @Override
+    protected void afterLoad() {
+        dataMap = new ConcurrentHashMap<>(dataMap);
+        dataMap.computeIfAbsent(TOTAL_ENDPOINT_NAME, key -> endpointDataFactory.create());
+    }
+
     public EndpointData getTotalEndpoint() {
         return dataMap.get(TOTAL_ENDPOINT_NAME);
     }
 
+    /*
+     * Safe to call from any thread. Known endpoints are a plain ConcurrentHashMap read followed by LongAdder
+     * increments; only the first request to a new endpoint goes through computeIfAbsent.
+     */
     public void updateRequestEndpointData(String requestURI, boolean isSuccessful, LocalTime requestTime) {
-        dataMap.computeIfAbsent(requestURI, key -> endpointDataFactory.create())
-                .registerRequest(isSuccessful, requestTime);
-        getTotalEndpoint().registerRequest(isSuccessful, requestTime);
+        updateRequestEndpointData(requestURI, 1, isSuccessful ? 1 : 0, requestTime);
+    }
+
+    public void updateRequestEndpointData(
+            String requestURI, long requests, long successfulRequests, LocalTime requestTime) {
+        EndpointData endpointData = dataMap.get(requestURI);
+        if (endpointData == null)
+            endpointData = dataMap.computeIfAbsent(requestURI, key -> endpointDataFactory.create());
+        endpointData.registerRequests(requests, successfulRequests, requestTime);
+        getTotalEndpoint().registerRequests(requests, successfulRequests, requestTime);
+    }
+
+    /*
+     * Snapshots written before stats were keyed by route template hold raw request URIs, which would stay forever.
+     * Every key that is not a known endpoint, or that exceeds maxEndpoints together with "other", is folded into
+     * "other".
+     */
+    public void foldEndpoints(Predicate<String> knownEndpoint, int maxEndpoints) {
+        int kept = 0;
+        for (String endpoint : dataMap.keySet()) {
+            if (endpoint.equals(TOTAL_ENDPOINT_NAME) || endpoint.equals(OTHER_ENDPOINT_NAME)) continue;
+            if (knownEndpoint.test(endpoint) && ++kept < maxEndpoints) continue;
+
+            EndpointData folded = dataMap.remove(endpoint);
+            if (folded != null)
+                dataMap.computeIfAbsent(OTHER_ENDPOINT_NAME, key -> endpointDataFactory.create()).add(folded);
+        }
+    }
+
+    /*
+     * Point-in-time copies of every endpoint, so the stats built from one call agree with each other while requests
+     * keep updating the live counters.
+     */
+    @Override
+    public Set<Map.Entry<String, EndpointData>> fetchAllEntries() {
+        Map<String, EndpointData> snapshot = new HashMap<>();
+        dataMap.forEach((endpoint, endpointData) -> snapshot.put(endpoint, endpointData.snapshot()));
+        return Collections.unmodifiableSet(snapshot.entrySet());
     }
 
     @Scheduled(cron = "0 */${timeframe.default.length.inMinutes} * * * *")
@@ -0,0 +1,41 @@
+package pl.wrapper.parking.infrastructure.inMemory;
+
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointLatency;
+
+/*
+ * Handler latency per endpoint, keyed like ParkingRequestRepository. Latency describes the running instance, so
+ * unlike the request counts it is not written to snapshots.
+ */
+@Component("requestLatencyRepository")
+public class RequestLatencyRepository {
+    private static final String TOTAL_ENDPOINT_NAME = "total";
+
+    private final Map<String, EndpointLatency> latencies = new ConcurrentHashMap<>();
+    private final int timeframeLength;
+
+    public RequestLatencyRepository(@Value("${timeframe.default.length.inMinutes}") int timeframeLength) {
+        this.timeframeLength = timeframeLength;
+    }
+
+    public void record(String endpoint, LocalTime requestTime, long micros) {
+        endpointLatency(endpoint).record(requestTime, micros);
+        endpointLatency(TOTAL_ENDPOINT_NAME).record(requestTime, micros);
+    }
+
+    public Map<String, EndpointLatency> fetchAll() {
+        return Collections.unmodifiableMap(latencies);
+    }
+
+    private EndpointLatency endpointLatency(String endpoint) {
+        EndpointLatency latency = latencies.get(endpoint);
+        return latency != null
+                ? latency
+                : latencies.computeIfAbsent(endpoint, key -> new EndpointLatency(timeframeLength));
+    }
+}
@@ -0,0 +1,60 @@
+package pl.wrapper.parking.infrastructure.inMemory;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Crash-safe replacement of a file: the bytes go to a temp file next to the target, are forced to disk and then
+ * atomically moved over the target, so a reader only ever sees the old or the new content.
+ */
+@Slf4j
+public final class SnapshotFiles {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private SnapshotFiles() {}
+
+    public static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        writeAtomically(target, bytes, () -> {});
+    }
+
+    /* beforeReplace runs once the new content is durable, right before it replaces the target. */
+    public static void writeAtomically(Path target, byte[] bytes, BeforeReplace beforeReplace) throws IOException {
+        Path absoluteTarget = target.toAbsolutePath();
+        Path directory = absoluteTarget.getParent();
+        Path temp = directory.resolve(absoluteTarget.getFileName() + TEMP_SUFFIX);
+
+        Files.createDirectories(directory);
+        try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(true);
+        }
+        beforeReplace.run();
+        Files.move(temp, absoluteTarget, ATOMIC_MOVE, REPLACE_EXISTING);
+        syncDirectory(directory);
+    }
+
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Directory {} cannot be synced on this platform", directory);
+        }
+    }
+
+    @FunctionalInterface
+    public interface BeforeReplace {
+        void run() throws IOException;
+    }
+}
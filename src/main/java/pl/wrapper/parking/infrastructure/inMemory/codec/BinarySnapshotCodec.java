@@ -0,0 +1,57 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Snapshot layout: magic, schema version, then the payload written by the subclass. Files written by the previous
+ * java serialization format are recognised by their stream header and read once through the legacy path, the next
+ * write replaces them with the binary format.
+ */
+@Slf4j
+public abstract class BinarySnapshotCodec<K, V> implements SnapshotCodec<K, V> {
+    static final int MAGIC = 0x50574253;
+
+    protected abstract int version();
+
+    protected abstract void writePayload(Map<K, V> data, DataOutputStream out) throws IOException;
+
+    protected abstract Map<K, V> readPayload(DataInputStream in, int version) throws IOException;
+
+    protected Map<K, V> readLegacy(InputStream in) throws IOException {
+        return JavaSerializationCodec.readLegacy(in);
+    }
+
+    @Override
+    public void write(Map<K, V> data, OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        dataOut.writeInt(MAGIC);
+        dataOut.writeShort(version());
+        writePayload(data, dataOut);
+        dataOut.flush();
+    }
+
+    @Override
+    public Map<K, V> read(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int header = buffered.read() << 8 | buffered.read();
+        buffered.reset();
+        if (header == JavaSerializationCodec.STREAM_MAGIC) {
+            log.info("Reading legacy java serialization snapshot, it will be rewritten in the binary format");
+            return readLegacy(buffered);
+        }
+
+        DataInputStream dataIn = new DataInputStream(buffered);
+        if (dataIn.readInt() != MAGIC) throw new IOException("Unrecognized snapshot format");
+        int version = dataIn.readUnsignedShort();
+        if (version > version()) throw new IOException("Unsupported snapshot version: " + version);
+        return readPayload(dataIn, version);
+    }
+}
@@ -0,0 +1,61 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import pl.wrapper.parking.infrastructure.inMemory.codec.legacy.LegacyRequestStats;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.TimeframeStatistic;
+
+public class EndpointDataCodec extends BinarySnapshotCodec<String, EndpointData> {
+    private static final int VERSION = 1;
+
+    @Override
+    protected int version() {
+        return VERSION;
+    }
+
+    /* EndpointData and TimeframeStatistic changed their fields since the java serialization format was replaced. */
+    @Override
+    protected Map<String, EndpointData> readLegacy(InputStream in) throws IOException {
+        return LegacyRequestStats.toEndpointData(JavaSerializationCodec.readLegacy(in, LegacyRequestStats.SUBSTITUTES));
+    }
+
+    @Override
+    protected void writePayload(Map<String, EndpointData> data, DataOutputStream out) throws IOException {
+        out.writeInt(data.size());
+        for (Map.Entry<String, EndpointData> entry : data.entrySet()) {
+            EndpointData endpointData = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeLong(endpointData.getSuccessCount());
+            out.writeLong(endpointData.getRequestCount());
+            out.writeInt(endpointData.getTimeframeLength());
+            out.writeInt(endpointData.getTimeframeStatistics().length);
+            for (TimeframeStatistic statistic : endpointData.getTimeframeStatistics()) {
+                out.writeDouble(statistic.getAverageNumberOfRequests());
+                out.writeInt(statistic.getTotalNumberOfRequests());
+                out.writeInt(statistic.getNumberOfAverageCalculations());
+            }
+        }
+    }
+
+    @Override
+    protected Map<String, EndpointData> readPayload(DataInputStream in, int version) throws IOException {
+        int endpointCount = in.readInt();
+        Map<String, EndpointData> data = new HashMap<>();
+        for (int i = 0; i < endpointCount; i++) {
+            String endpoint = in.readUTF();
+            long successCount = in.readLong();
+            long requestCount = in.readLong();
+            int timeframeLength = in.readInt();
+            TimeframeStatistic[] statistics = new TimeframeStatistic[in.readInt()];
+            for (int s = 0; s < statistics.length; s++)
+                statistics[s] = new TimeframeStatistic(in.readDouble(), in.readInt(), in.readInt());
+            data.put(endpoint, new EndpointData(successCount, requestCount, statistics, timeframeLength));
+        }
+        return data;
+    }
+}
@@ -0,0 +1,54 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.util.Map;
+
+public class JavaSerializationCodec<K, V> implements SnapshotCodec<K, V> {
+    static final int STREAM_MAGIC = 0xACED;
+
+    private static final ObjectInputFilter FILTER =
+            ObjectInputFilter.Config.createFilter("maxdepth=16;java.base/*;pl.wrapper.parking.**;!*");
+
+    @Override
+    public void write(Map<K, V> data, OutputStream out) throws IOException {
+        ObjectOutputStream objectOut = new ObjectOutputStream(out);
+        objectOut.writeObject(data);
+        objectOut.flush();
+    }
+
+    @Override
+    public Map<K, V> read(InputStream in) throws IOException {
+        return readLegacy(in);
+    }
+
+    static <K, V> Map<K, V> readLegacy(InputStream in) throws IOException {
+        return readLegacy(in, Map.of());
+    }
+
+    /*
+     * Classes named in substitutes are read into the given stand-ins, for snapshots written by a version of a class
+     * that can no longer read them. A stand-in must keep the simple name, serialVersionUID and fields of the old class.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> Map<K, V> readLegacy(InputStream in, Map<String, Class<?>> substitutes) throws IOException {
+        ObjectInputStream objectIn = new ObjectInputStream(in) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                Class<?> substitute = substitutes.get(desc.getName());
+                return substitute != null ? substitute : super.resolveClass(desc);
+            }
+        };
+        objectIn.setObjectInputFilter(FILTER);
+        try {
+            return (Map<K, V>) objectIn.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unreadable legacy snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.lang.Nullable;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ArrayWeeklyHistogram;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilitySketch;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.WeeklyHistogram;
+
+/*
+ * Version 2 prefixes every parking lot with its history kind. Histogram-backed lots also store their slot length
+ * and, after each slot, the non-empty bins of its availability sketch, so they decode straight back into a
+ * histogram. Version 3 follows the sketch with the slot's decayed average (NaN when it has none). Version 1 files
+ * hold map histories only.
+ */
+public class ParkingDataCodec extends BinarySnapshotCodec<Integer, ParkingData> {
+    private static final int VERSION = 3;
+    private static final int MAP_HISTORY = 0;
+    private static final int HISTOGRAM_HISTORY = 1;
+
+    @Override
+    protected int version() {
+        return VERSION;
+    }
+
+    @Override
+    protected void writePayload(Map<Integer, ParkingData> data, DataOutputStream out) throws IOException {
+        out.writeInt(data.size());
+        for (Map.Entry<Integer, ParkingData> entry : data.entrySet()) {
+            ParkingData parkingData = entry.getValue();
+            WeeklyHistogram histogram = parkingData.histogram();
+            out.writeInt(entry.getKey());
+            out.writeInt(parkingData.parkingId());
+            out.writeInt(parkingData.totalSpots());
+            out.writeByte(histogram == null ? MAP_HISTORY : HISTOGRAM_HISTORY);
+            if (histogram != null) out.writeShort(histogram.slotMinutes());
+            out.writeByte(parkingData.freeSpotsHistory().size());
+            for (Map.Entry<DayOfWeek, Map<LocalTime, AvailabilityData>> day :
+                    parkingData.freeSpotsHistory().entrySet()) {
+                out.writeByte(day.getKey().getValue());
+                out.writeShort(day.getValue().size());
+                for (Map.Entry<LocalTime, AvailabilityData> slot : day.getValue().entrySet()) {
+                    out.writeInt(slot.getKey().toSecondOfDay());
+                    out.writeInt(slot.getValue().sampleCount());
+                    out.writeDouble(slot.getValue().averageAvailability());
+                    if (histogram == null) continue;
+                    writeSketch(histogram.sketch(day.getKey(), slot.getKey()), out);
+                    out.writeDouble(histogram.decayedAvailability(day.getKey(), slot.getKey()));
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Map<Integer, ParkingData> readPayload(DataInputStream in, int version) throws IOException {
+        int parkingCount = in.readInt();
+        Map<Integer, ParkingData> data = new HashMap<>();
+        for (int i = 0; i < parkingCount; i++) {
+            int key = in.readInt();
+            int parkingId = in.readInt();
+            int totalSpots = in.readInt();
+            int kind = version >= 2 ? in.readUnsignedByte() : MAP_HISTORY;
+            if (kind == HISTOGRAM_HISTORY) {
+                data.put(key, readHistogram(in, version, parkingId, totalSpots));
+                continue;
+            }
+            if (kind != MAP_HISTORY) throw new IOException("Unknown parking history kind: " + kind);
+
+            int dayCount = in.readUnsignedByte();
+            Map<DayOfWeek, Map<LocalTime, AvailabilityData>> history = new HashMap<>();
+            for (int d = 0; d < dayCount; d++) {
+                DayOfWeek day = DayOfWeek.of(in.readUnsignedByte());
+                int slotCount = in.readUnsignedShort();
+                Map<LocalTime, AvailabilityData> slots = new HashMap<>();
+                for (int s = 0; s < slotCount; s++) {
+                    LocalTime time = LocalTime.ofSecondOfDay(in.readInt());
+                    slots.put(time, new AvailabilityData(in.readInt(), in.readDouble()));
+                }
+                history.put(day, slots);
+            }
+            data.put(
+                    key,
+                    ParkingData.builder()
+                            .parkingId(parkingId)
+                            .totalSpots(totalSpots)
+                            .freeSpotsHistory(history)
+                            .build());
+        }
+        return data;
+    }
+
+    private static ParkingData readHistogram(DataInputStream in, int version, int parkingId, int totalSpots)
+            throws IOException {
+        WeeklyHistogram histogram = new ArrayWeeklyHistogram(in.readUnsignedShort());
+        int dayCount = in.readUnsignedByte();
+        for (int d = 0; d < dayCount; d++) {
+            DayOfWeek day = DayOfWeek.of(in.readUnsignedByte());
+            int slotCount = in.readUnsignedShort();
+            for (int s = 0; s < slotCount; s++) {
+                LocalTime time = LocalTime.ofSecondOfDay(in.readInt());
+                histogram.put(day, time, new AvailabilityData(in.readInt(), in.readDouble()));
+                histogram.addSketch(day, time, readSketch(in));
+                if (version >= 3) histogram.putDecayedAvailability(day, time, in.readDouble());
+            }
+        }
+        return ParkingData.withHistogram(parkingId, totalSpots, histogram);
+    }
+
+    private static void writeSketch(@Nullable AvailabilitySketch sketch, DataOutputStream out) throws IOException {
+        if (sketch == null) sketch = new AvailabilitySketch();
+        int nonEmptyBins = 0;
+        for (int bin = 0; bin < AvailabilitySketch.BINS; bin++) if (sketch.count(bin) > 0) nonEmptyBins++;
+        out.writeByte(nonEmptyBins);
+        for (int bin = 0; bin < AvailabilitySketch.BINS; bin++) {
+            if (sketch.count(bin) == 0) continue;
+            out.writeByte(bin);
+            out.writeInt(sketch.count(bin));
+        }
+    }
+
+    private static AvailabilitySketch readSketch(DataInputStream in) throws IOException {
+        AvailabilitySketch sketch = new AvailabilitySketch();
+        int nonEmptyBins = in.readUnsignedByte();
+        for (int i = 0; i < nonEmptyBins; i++) sketch.add(in.readUnsignedByte(), in.readInt());
+        return sketch;
+    }
+}
@@ -0,0 +1,12 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+public interface SnapshotCodec<K, V> {
+    void write(Map<K, V> data, OutputStream out) throws IOException;
+
+    Map<K, V> read(InputStream in) throws IOException;
+}
@@ -0,0 +1,24 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec.legacy;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/* Stand-in for the java serialized form of EndpointData before LongAdder counters. */
+final class EndpointData implements Serializable {
+    private static final long serialVersionUID = -5632703413053161702L;
+
+    private long successCount;
+    private long requestCount;
+    private TimeframeStatistic[] timeframeStatistics;
+    private int timeframeLength;
+
+    pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData toEndpointData() {
+        return new pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData(
+                successCount,
+                requestCount,
+                Arrays.stream(timeframeStatistics)
+                        .map(TimeframeStatistic::toTimeframeStatistic)
+                        .toArray(pl.wrapper.parking.infrastructure.inMemory.dto.request.TimeframeStatistic[]::new),
+                timeframeLength);
+    }
+}
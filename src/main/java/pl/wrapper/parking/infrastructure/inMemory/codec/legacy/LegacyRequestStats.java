@@ -0,0 +1,27 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec.legacy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Reads request statistics written with java serialization before EndpointData and TimeframeStatistic switched to
+ * LongAdder counters. The stand-ins in this package keep the old fields and the serialVersionUIDs the old classes were
+ * given by default, so the old snapshot still resolves to them.
+ */
+public final class LegacyRequestStats {
+    private static final String DTO_PACKAGE = "pl.wrapper.parking.infrastructure.inMemory.dto.request.";
+
+    public static final Map<String, Class<?>> SUBSTITUTES = Map.of(
+            DTO_PACKAGE + "EndpointData", EndpointData.class,
+            DTO_PACKAGE + "TimeframeStatistic", TimeframeStatistic.class,
+            "[L" + DTO_PACKAGE + "TimeframeStatistic;", TimeframeStatistic[].class);
+
+    private LegacyRequestStats() {}
+
+    public static Map<String, pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData> toEndpointData(
+            Map<String, ?> legacy) {
+        Map<String, pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData> data = new HashMap<>();
+        legacy.forEach((endpoint, endpointData) -> data.put(endpoint, ((EndpointData) endpointData).toEndpointData()));
+        return data;
+    }
+}
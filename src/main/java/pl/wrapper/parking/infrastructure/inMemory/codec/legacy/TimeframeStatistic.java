@@ -0,0 +1,17 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec.legacy;
+
+import java.io.Serializable;
+
+/* Stand-in for the java serialized form of TimeframeStatistic before LongAdder counters. */
+final class TimeframeStatistic implements Serializable {
+    private static final long serialVersionUID = -1938071268223461429L;
+
+    private double averageNumberOfRequests;
+    private int totalNumberOfRequests;
+    private int numberOfAverageCalculations;
+
+    pl.wrapper.parking.infrastructure.inMemory.dto.request.TimeframeStatistic toTimeframeStatistic() {
+        return new pl.wrapper.parking.infrastructure.inMemory.dto.request.TimeframeStatistic(
+                averageNumberOfRequests, totalNumberOfRequests, numberOfAverageCalculations);
+    }
+}
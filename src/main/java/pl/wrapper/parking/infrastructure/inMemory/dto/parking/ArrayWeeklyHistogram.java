@@ -0,0 +1,65 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.parking;
+
+import java.util.Arrays;
+
+public final class ArrayWeeklyHistogram extends WeeklyHistogram {
+    private final int[] sampleCounts;
+    private final double[] averageAvailabilities;
+    private final int[] sketchCounts;
+    private final double[] decayedAvailabilities;
+
+    public ArrayWeeklyHistogram(int slotMinutes) {
+        super(slotMinutes);
+        this.sampleCounts = new int[cellCount(slotMinutes)];
+        this.averageAvailabilities = new double[sampleCounts.length];
+        this.sketchCounts = new int[sampleCounts.length * AvailabilitySketch.BINS];
+        this.decayedAvailabilities = new double[sampleCounts.length];
+        Arrays.fill(decayedAvailabilities, Double.NaN);
+    }
+
+    @Override
+    protected int sampleCount(int cell) {
+        return sampleCounts[cell];
+    }
+
+    @Override
+    protected double averageAvailability(int cell) {
+        return averageAvailabilities[cell];
+    }
+
+    @Override
+    protected void set(int cell, int sampleCount, double averageAvailability) {
+        averageAvailabilities[cell] = averageAvailability;
+        sampleCounts[cell] = sampleCount;
+    }
+
+    @Override
+    protected boolean hasSketches() {
+        return true;
+    }
+
+    @Override
+    protected int sketchCount(int cell, int bin) {
+        return sketchCounts[cell * AvailabilitySketch.BINS + bin];
+    }
+
+    @Override
+    protected void addToSketch(int cell, int bin, int count) {
+        sketchCounts[cell * AvailabilitySketch.BINS + bin] += count;
+    }
+
+    @Override
+    protected boolean hasDecay() {
+        return true;
+    }
+
+    @Override
+    protected double decayedAvailability(int cell) {
+        return decayedAvailabilities[cell];
+    }
+
+    @Override
+    protected void setDecayedAvailability(int cell, double decayedAvailability) {
+        decayedAvailabilities[cell] = decayedAvailability;
+    }
+}
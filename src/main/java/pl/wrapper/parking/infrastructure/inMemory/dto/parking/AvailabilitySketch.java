@@ -0,0 +1,75 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.parking;
+
+import java.util.Arrays;
+
+/*
+ * Mergeable quantile sketch of availability samples. Availability is a ratio in [0, 1], so a fixed set of equal-width
+ * bins already bounds memory and merges by addition; quantiles are interpolated inside the bin, which keeps them
+ * within half a bin (1.25 percentage points) of the true value for evenly spread samples.
+ */
+public final class AvailabilitySketch {
+    public static final int BINS = 40;
+
+    private final int[] counts;
+
+    public AvailabilitySketch() {
+        this.counts = new int[BINS];
+    }
+
+    public static int binOf(double availability) {
+        if (!(availability > 0)) return 0;
+        return (int) Math.min(BINS - 1, availability * BINS);
+    }
+
+    public void add(int bin, int count) {
+        counts[bin] += count;
+    }
+
+    public void merge(AvailabilitySketch other) {
+        for (int bin = 0; bin < BINS; bin++) counts[bin] += other.counts[bin];
+    }
+
+    public int count(int bin) {
+        return counts[bin];
+    }
+
+    public long totalCount() {
+        long total = 0;
+        for (int count : counts) total += count;
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return totalCount() == 0;
+    }
+
+    /* Availability below which the given fraction (0-1) of samples falls, or NaN for an empty sketch. */
+    public double quantile(double fraction) {
+        long total = totalCount();
+        if (total == 0) return Double.NaN;
+
+        double rank = fraction * total;
+        long seen = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            if (counts[bin] == 0) continue;
+            if (seen + counts[bin] >= rank) return (bin + Math.max(0, rank - seen) / counts[bin]) / BINS;
+            seen += counts[bin];
+        }
+        return 1.0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AvailabilitySketch other && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return "AvailabilitySketch" + Arrays.toString(counts);
+    }
+}
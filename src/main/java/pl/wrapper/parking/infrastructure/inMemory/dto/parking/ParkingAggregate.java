@@ -0,0 +1,87 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.parking;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.lang.Nullable;
+
+/*
+ * Weekly and per-day summaries of one parking lot's freeSpotsHistory, kept by ParkingDataRepository so that weekly
+ * and daily stats do not walk the history on every request. Slots are visited in the history's own iteration order
+ * and averaged with DoubleStream.average(), so the results are bit-for-bit those of a full scan.
+ */
+public record ParkingAggregate(SlotAggregate week, Map<DayOfWeek, SlotAggregate> days) {
+
+    public static ParkingAggregate of(ParkingData parkingData) {
+        WeeklyHistogram histogram = parkingData.histogram();
+        Accumulator week = new Accumulator(histogram);
+        Map<DayOfWeek, SlotAggregate> days = new EnumMap<>(DayOfWeek.class);
+        for (Map.Entry<DayOfWeek, Map<LocalTime, AvailabilityData>> dailyEntry :
+                parkingData.freeSpotsHistory().entrySet()) {
+            Accumulator day = new Accumulator(histogram);
+            for (Map.Entry<LocalTime, AvailabilityData> timeEntry :
+                    dailyEntry.getValue().entrySet()) {
+                double availability = timeEntry.getValue().averageAvailability();
+                week.add(dailyEntry.getKey(), timeEntry.getKey(), availability);
+                day.add(dailyEntry.getKey(), timeEntry.getKey(), availability);
+            }
+            days.put(dailyEntry.getKey(), day.toAggregate());
+        }
+        return new ParkingAggregate(week.toAggregate(), days);
+    }
+
+    public SlotAggregate day(DayOfWeek dayOfWeek) {
+        return days.getOrDefault(dayOfWeek, SlotAggregate.EMPTY);
+    }
+
+    private static final class Accumulator {
+        @Nullable
+        private final WeeklyHistogram histogram;
+
+        private final AvailabilitySketch distribution = new AvailabilitySketch();
+        private double[] availabilities = new double[16];
+        private int count;
+        private double lowestAvailability = Double.POSITIVE_INFINITY;
+        private double highestAvailability = Double.NEGATIVE_INFINITY;
+        private DayOfWeek lowestDay;
+        private LocalTime lowestAt;
+        private DayOfWeek highestDay;
+        private LocalTime highestAt;
+
+        Accumulator(@Nullable WeeklyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        void add(DayOfWeek day, LocalTime time, double availability) {
+            if (count == availabilities.length) availabilities = Arrays.copyOf(availabilities, count * 2);
+            availabilities[count++] = availability;
+            if (histogram != null && histogram.fits(time))
+                histogram.addSketchTo(histogram.cell(day, time), distribution);
+            if (availability > highestAvailability) {
+                highestAvailability = availability;
+                highestDay = day;
+                highestAt = time;
+            }
+            if (availability < lowestAvailability) {
+                lowestAvailability = availability;
+                lowestDay = day;
+                lowestAt = time;
+            }
+        }
+
+        SlotAggregate toAggregate() {
+            if (count == 0) return SlotAggregate.EMPTY;
+            double average = Arrays.stream(availabilities, 0, count).average().orElse(0.0);
+            return new SlotAggregate(
+                    count,
+                    average,
+                    lowestDay,
+                    lowestAt,
+                    highestDay,
+                    highestAt,
+                    distribution.isEmpty() ? null : distribution);
+        }
+    }
+}
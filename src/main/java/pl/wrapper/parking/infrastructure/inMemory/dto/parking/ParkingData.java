@@ -5,8 +5,28 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.Map;
 import lombok.Builder;
+import org.springframework.lang.Nullable;
 
 @Builder
 public record ParkingData(
         int parkingId, int totalSpots, Map<DayOfWeek, Map<LocalTime, AvailabilityData>> freeSpotsHistory)
-        implements Serializable {}
+        implements Serializable {
+
+    public static ParkingData withHistogram(int parkingId, int totalSpots, WeeklyHistogram histogram) {
+        return new ParkingData(parkingId, totalSpots, histogram.asMap());
+    }
+
+    /*
+     * The same lot with each slot's decayed average in place of its lifetime mean. Map-backed histories keep no
+     * decay state and are returned as they are.
+     */
+    public ParkingData decayed() {
+        WeeklyHistogram histogram = histogram();
+        return histogram == null ? this : new ParkingData(parkingId, totalSpots, histogram.asDecayedMap());
+    }
+
+    @Nullable
+    public WeeklyHistogram histogram() {
+        return freeSpotsHistory instanceof WeeklyHistogramView view ? view.histogram() : null;
+    }
+}
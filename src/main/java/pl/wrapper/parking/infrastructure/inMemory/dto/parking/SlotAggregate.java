@@ -0,0 +1,22 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.parking;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import org.springframework.lang.Nullable;
+
+/*
+ * Summary of a set of slots: how many there are, the mean of their average availabilities, and where the lowest and
+ * highest availability was seen (first slot wins on ties). The distribution merges the slots' availability sketches
+ * and is null when none of the slots carries one.
+ */
+public record SlotAggregate(
+        int slots,
+        double averageAvailability,
+        @Nullable DayOfWeek lowestAvailabilityDay,
+        @Nullable LocalTime lowestAvailabilityAt,
+        @Nullable DayOfWeek highestAvailabilityDay,
+        @Nullable LocalTime highestAvailabilityAt,
+        @Nullable AvailabilitySketch distribution) {
+
+    public static final SlotAggregate EMPTY = new SlotAggregate(0, 0.0, null, null, null, null, null);
+}
@@ -0,0 +1,184 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.parking;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Map;
+import org.springframework.lang.Nullable;
+
+/*
+ * Weekly grid of (sample count, mean availability) cells indexed by day * slotsPerDay + slot. Subclasses only decide
+ * where the cells live; asMap() adapts the grid to the freeSpotsHistory shape expected by ParkingData consumers.
+ * Subclasses that override the sketch hooks also keep an AvailabilitySketch of the samples in every cell, and those
+ * that override the decay hooks an exponentially weighted average next to the lifetime mean.
+ */
+public abstract class WeeklyHistogram {
+    private final int slotMinutes;
+    private final int slotSeconds;
+    private final int slotsPerDay;
+
+    protected WeeklyHistogram(int slotMinutes) {
+        this.slotMinutes = slotMinutes;
+        this.slotSeconds = slotMinutes * 60;
+        this.slotsPerDay = slotsPerDay(slotMinutes);
+    }
+
+    public static int slotsPerDay(int slotMinutes) {
+        return (24 * 60 + slotMinutes - 1) / slotMinutes;
+    }
+
+    public static int cellCount(int slotMinutes) {
+        return DayOfWeek.values().length * slotsPerDay(slotMinutes);
+    }
+
+    protected abstract int sampleCount(int cell);
+
+    protected abstract double averageAvailability(int cell);
+
+    protected abstract void set(int cell, int sampleCount, double averageAvailability);
+
+    protected boolean hasSketches() {
+        return false;
+    }
+
+    protected int sketchCount(int cell, int bin) {
+        return 0;
+    }
+
+    protected void addToSketch(int cell, int bin, int count) {}
+
+    protected boolean hasDecay() {
+        return false;
+    }
+
+    /* NaN while the cell has no decayed average yet. */
+    protected double decayedAvailability(int cell) {
+        return Double.NaN;
+    }
+
+    protected void setDecayedAvailability(int cell, double decayedAvailability) {}
+
+    /* Weight of a new sample in the exponentially weighted average for a half-life given in samples. */
+    public static double decayWeight(double halfLifeSamples) {
+        return 1 - Math.pow(0.5, 1 / halfLifeSamples);
+    }
+
+    public int slotMinutes() {
+        return slotMinutes;
+    }
+
+    public boolean fits(LocalTime time) {
+        return time.toSecondOfDay() % slotSeconds == 0 && time.getNano() == 0;
+    }
+
+    public AvailabilityData record(DayOfWeek day, LocalTime time, double availability) {
+        int cell = cell(day, time);
+        int sampleCount = sampleCount(cell) + 1;
+        double average = (averageAvailability(cell) * (sampleCount - 1) + availability) / sampleCount;
+        set(cell, sampleCount, average);
+        if (hasSketches()) addToSketch(cell, AvailabilitySketch.binOf(availability), 1);
+        return new AvailabilityData(sampleCount, average);
+    }
+
+    /*
+     * Moves the cell's decayed average towards a sample already passed to record(). A cell without a decayed average
+     * starts from its lifetime mean, which for a first sample is the sample itself.
+     */
+    public void decay(DayOfWeek day, LocalTime time, double availability, double weight) {
+        if (!hasDecay()) return;
+        int cell = cell(day, time);
+        double decayed = decayedAvailability(cell);
+        if (Double.isNaN(decayed)) setDecayedAvailability(cell, averageAvailability(cell));
+        else setDecayedAvailability(cell, decayed + weight * (availability - decayed));
+    }
+
+    public double decayedAvailability(DayOfWeek day, LocalTime time) {
+        return hasDecay() && fits(time) ? decayedAvailability(cell(day, time)) : Double.NaN;
+    }
+
+    public void putDecayedAvailability(DayOfWeek day, LocalTime time, double decayedAvailability) {
+        if (hasDecay()) setDecayedAvailability(cell(day, time), decayedAvailability);
+    }
+
+    public void recordSketchSample(DayOfWeek day, LocalTime time, double availability) {
+        if (hasSketches()) addToSketch(cell(day, time), AvailabilitySketch.binOf(availability), 1);
+    }
+
+    public void addSketch(DayOfWeek day, LocalTime time, AvailabilitySketch sketch) {
+        if (!hasSketches()) return;
+        int cell = cell(day, time);
+        for (int bin = 0; bin < AvailabilitySketch.BINS; bin++)
+            if (sketch.count(bin) > 0) addToSketch(cell, bin, sketch.count(bin));
+    }
+
+    /* Copy of the cell's sketch, or null when this histogram keeps no sketches or the time is not a slot start. */
+    @Nullable
+    public AvailabilitySketch sketch(DayOfWeek day, LocalTime time) {
+        if (!hasSketches() || !fits(time)) return null;
+        AvailabilitySketch sketch = new AvailabilitySketch();
+        addSketchTo(cell(day, time), sketch);
+        return sketch;
+    }
+
+    public void put(DayOfWeek day, LocalTime time, AvailabilityData data) {
+        set(cell(day, time), data.sampleCount(), data.averageAvailability());
+    }
+
+    public void merge(DayOfWeek day, LocalTime time, AvailabilityData data) {
+        if (sampleCount(cell(day, time)) < data.sampleCount()) put(day, time, data);
+    }
+
+    @Nullable
+    public AvailabilityData get(DayOfWeek day, LocalTime time) {
+        return fits(time) ? cellData(cell(day, time)) : null;
+    }
+
+    public void putAll(Map<DayOfWeek, Map<LocalTime, AvailabilityData>> history) {
+        history.forEach((day, slots) -> slots.forEach((time, data) -> put(day, time, data)));
+    }
+
+    public Map<DayOfWeek, Map<LocalTime, AvailabilityData>> asMap() {
+        return new WeeklyHistogramView(this, false);
+    }
+
+    /* Same cells as asMap(), with the decayed average in place of the lifetime mean wherever there is one. */
+    public Map<DayOfWeek, Map<LocalTime, AvailabilityData>> asDecayedMap() {
+        return new WeeklyHistogramView(this, true);
+    }
+
+    int slotsPerDay() {
+        return slotsPerDay;
+    }
+
+    LocalTime slotStart(int slot) {
+        return LocalTime.ofSecondOfDay((long) slot * slotSeconds);
+    }
+
+    int cell(DayOfWeek day, int slot) {
+        return (day.getValue() - 1) * slotsPerDay + slot;
+    }
+
+    void addSketchTo(int cell, AvailabilitySketch target) {
+        for (int bin = 0; bin < AvailabilitySketch.BINS; bin++) {
+            int count = sketchCount(cell, bin);
+            if (count > 0) target.add(bin, count);
+        }
+    }
+
+    int cell(DayOfWeek day, LocalTime time) {
+        return cell(day, time.toSecondOfDay() / slotSeconds);
+    }
+
+    @Nullable
+    AvailabilityData cellData(int cell) {
+        int sampleCount = sampleCount(cell);
+        return sampleCount == 0 ? null : new AvailabilityData(sampleCount, averageAvailability(cell));
+    }
+
+    @Nullable
+    AvailabilityData decayedCellData(int cell) {
+        int sampleCount = sampleCount(cell);
+        if (sampleCount == 0) return null;
+        double decayed = decayedAvailability(cell);
+        return new AvailabilityData(sampleCount, Double.isNaN(decayed) ? averageAvailability(cell) : decayed);
+    }
+}
@@ -0,0 +1,106 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.parking;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Read-only freeSpotsHistory over a WeeklyHistogram. Days and slots without samples are left out, like in the nested
+ * maps, and entries come in day and slot order. A decayed view reports the cells' decayed averages instead.
+ */
+final class WeeklyHistogramView extends AbstractMap<DayOfWeek, Map<LocalTime, AvailabilityData>> {
+    private final WeeklyHistogram histogram;
+    private final boolean decayed;
+
+    WeeklyHistogramView(WeeklyHistogram histogram, boolean decayed) {
+        this.histogram = histogram;
+        this.decayed = decayed;
+    }
+
+    WeeklyHistogram histogram() {
+        return histogram;
+    }
+
+    @Override
+    public Map<LocalTime, AvailabilityData> get(Object key) {
+        if (!(key instanceof DayOfWeek day)) return null;
+        DayView dayView = new DayView(day);
+        return dayView.isEmpty() ? null : dayView;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<DayOfWeek, Map<LocalTime, AvailabilityData>>> entrySet() {
+        List<Entry<DayOfWeek, Map<LocalTime, AvailabilityData>>> days = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            DayView dayView = new DayView(day);
+            if (!dayView.isEmpty()) days.add(new SimpleImmutableEntry<>(day, dayView));
+        }
+        return listBackedSet(days);
+    }
+
+    private static <E> Set<E> listBackedSet(List<E> elements) {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<E> iterator() {
+                return elements.iterator();
+            }
+
+            @Override
+            public int size() {
+                return elements.size();
+            }
+        };
+    }
+
+    private final class DayView extends AbstractMap<LocalTime, AvailabilityData> {
+        private final DayOfWeek day;
+
+        private DayView(DayOfWeek day) {
+            this.day = day;
+        }
+
+        @Override
+        public AvailabilityData get(Object key) {
+            if (!(key instanceof LocalTime time) || !histogram.fits(time)) return null;
+            return cellData(histogram.cell(day, time));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            int firstCell = histogram.cell(day, 0);
+            for (int cell = firstCell; cell < firstCell + histogram.slotsPerDay(); cell++)
+                if (histogram.sampleCount(cell) > 0) return false;
+            return true;
+        }
+
+        @Override
+        public Set<Entry<LocalTime, AvailabilityData>> entrySet() {
+            List<Entry<LocalTime, AvailabilityData>> slots = new ArrayList<>();
+            for (int slot = 0; slot < histogram.slotsPerDay(); slot++) {
+                AvailabilityData data = cellData(histogram.cell(day, slot));
+                if (data != null) slots.add(new SimpleImmutableEntry<>(histogram.slotStart(slot), data));
+            }
+            return listBackedSet(slots);
+        }
+
+        private AvailabilityData cellData(int cell) {
+            return decayed ? histogram.decayedCellData(cell) : histogram.cellData(cell);
+        }
+    }
+}
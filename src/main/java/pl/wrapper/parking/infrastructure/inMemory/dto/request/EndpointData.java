@@ -5,22 +5,36 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
-import lombok.AllArgsConstructor;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 
-@Builder
-@AllArgsConstructor
+/*
+ * Updated by every request without locking: counters are LongAdders, so concurrent threads increment separate cells.
+ * Readers that need a coherent view of several counters should work on snapshot().
+ */
 @Getter
 public class EndpointData implements Serializable {
-    private long successCount;
-    private long requestCount;
+    @Getter(AccessLevel.NONE)
+    private final LongAdder successCount = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    private final LongAdder requestCount = new LongAdder();
+
     private final TimeframeStatistic[] timeframeStatistics;
     private final int timeframeLength;
 
+    @Builder
+    public EndpointData(
+            long successCount, long requestCount, TimeframeStatistic[] timeframeStatistics, int timeframeLength) {
+        this.successCount.add(successCount);
+        this.requestCount.add(requestCount);
+        this.timeframeStatistics = timeframeStatistics;
+        this.timeframeLength = timeframeLength;
+    }
+
     public EndpointData(int timeframeLength) {
-        this.successCount = 0;
-        this.requestCount = 0;
         this.timeframeLength = timeframeLength;
         this.timeframeStatistics = new TimeframeStatistic[calculateTimeframesCount(timeframeLength)];
         for (int i = 0; i < timeframeStatistics.length; i++) {
@@ -28,20 +42,51 @@ public class EndpointData implements Serializable {
         }
     }
 
+    public long getSuccessCount() {
+        return successCount.sum();
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
     public double getSuccessRate() {
-        if (requestCount == 0) return 0.0;
-        return BigDecimal.valueOf((double) successCount / requestCount * 100)
+        long requests = getRequestCount();
+        if (requests == 0) return 0.0;
+        return BigDecimal.valueOf((double) getSuccessCount() / requests * 100)
                 .setScale(2, RoundingMode.HALF_UP)
                 .doubleValue();
     }
 
     public void registerRequest(boolean isSuccessful, LocalTime requestTime) {
-        requestCount++;
-        if (isSuccessful) {
-            successCount++;
-        }
+        registerRequests(1, isSuccessful ? 1 : 0, requestTime);
+    }
+
+    public void registerRequests(long requests, long successfulRequests, LocalTime requestTime) {
+        requestCount.add(requests);
+        successCount.add(successfulRequests);
         int timeframe = mapToTimeframeIndex(requestTime);
-        timeframeStatistics[timeframe].registerRequest();
+        timeframeStatistics[timeframe].registerRequests(requests);
+    }
+
+    /* Adds the counts of another endpoint, e.g. one folded into "other"; timeframes only when their lengths match. */
+    public void add(EndpointData folded) {
+        requestCount.add(folded.getRequestCount());
+        successCount.add(folded.getSuccessCount());
+        if (folded.timeframeLength != timeframeLength) return;
+        for (int i = 0; i < timeframeStatistics.length; i++) timeframeStatistics[i].add(folded.timeframeStatistics[i]);
+    }
+
+    /*
+     * Successes are read before requests, the reverse of the order they are incremented in, so a snapshot never
+     * reports more successful requests than requests.
+     */
+    public EndpointData snapshot() {
+        long successes = getSuccessCount();
+        long requests = getRequestCount();
+        TimeframeStatistic[] statistics = new TimeframeStatistic[timeframeStatistics.length];
+        for (int i = 0; i < statistics.length; i++) statistics[i] = timeframeStatistics[i].snapshot();
+        return new EndpointData(successes, requests, statistics, timeframeLength);
     }
 
     public void recalculateAverageForPreviousTimeframe(LocalTime currentTimeframeTime) {
@@ -0,0 +1,46 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.request;
+
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+/*
+ * Latency of one endpoint overall and per timeframe of the day. Timeframe histograms are only allocated once the
+ * timeframe sees a request.
+ */
+public final class EndpointLatency {
+    @Getter
+    private final int timeframeLength;
+
+    @Getter
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    private final AtomicReferenceArray<LatencyHistogram> timeframes;
+
+    public EndpointLatency(int timeframeLength) {
+        this.timeframeLength = timeframeLength;
+        this.timeframes = new AtomicReferenceArray<>((int) Math.ceil((double) 24 * 60 / timeframeLength));
+    }
+
+    public void record(LocalTime requestTime, long micros) {
+        total.record(micros);
+        int timeframe = (int) ChronoUnit.MINUTES.between(LocalTime.MIDNIGHT, requestTime) / timeframeLength;
+        LatencyHistogram histogram = timeframes.get(timeframe);
+        if (histogram == null) {
+            timeframes.compareAndSet(timeframe, null, new LatencyHistogram());
+            histogram = timeframes.get(timeframe);
+        }
+        histogram.record(micros);
+    }
+
+    public int getTimeframeCount() {
+        return timeframes.length();
+    }
+
+    @Nullable
+    public LatencyHistogram getTimeframe(int timeframe) {
+        return timeframes.get(timeframe);
+    }
+}
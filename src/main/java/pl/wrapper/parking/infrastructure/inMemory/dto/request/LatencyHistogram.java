@@ -0,0 +1,56 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.request;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+ * Log-linear latency histogram in microseconds with fixed memory, in the spirit of HdrHistogram: values below 32 get
+ * exact buckets, and every further power of two is split into 16 linear buckets, so any recorded value is reported
+ * within about 3% of its true value. Values above ~134 s land in the last bucket.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 26;
+    static final int BUCKET_COUNT = bucketIndex((1L << (MAX_EXPONENT + 1)) - 1) + 1;
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKET_COUNT);
+
+    public void record(long micros) {
+        counts.incrementAndGet(bucketIndex(Math.min(Math.max(micros, 0), (1L << (MAX_EXPONENT + 1)) - 1)));
+    }
+
+    public long totalCount() {
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) total += counts.get(bucket);
+        return total;
+    }
+
+    /* Midpoint of the bucket holding the given percentile (0-100], or 0 when nothing was recorded. */
+    public double valueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) total += snapshot[bucket] = counts.get(bucket);
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= rank) return bucketMidpoint(bucket);
+        }
+        return bucketMidpoint(BUCKET_COUNT - 1);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static double bucketMidpoint(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return (mantissa << shift) + ((1L << shift) - 1) / 2.0;
+    }
+}
@@ -1,28 +1,62 @@
 package pl.wrapper.parking.infrastructure.inMemory.dto.request;
 
 import java.io.Serializable;
-import lombok.AllArgsConstructor;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-@Setter
+/*
+ * Requests are counted from any worker thread through a LongAdder; the average is only recalculated by the scheduled
+ * update, and published through volatile fields for readers.
+ */
 @Getter
-@AllArgsConstructor
 @NoArgsConstructor
 public class TimeframeStatistic implements Serializable {
-    private double averageNumberOfRequests;
-    private int totalNumberOfRequests;
-    private int numberOfAverageCalculations;
+    @Setter
+    private volatile double averageNumberOfRequests;
+
+    @Getter(AccessLevel.NONE)
+    private final LongAdder totalNumberOfRequests = new LongAdder();
+
+    private volatile int numberOfAverageCalculations;
+
+    public TimeframeStatistic(
+            double averageNumberOfRequests, int totalNumberOfRequests, int numberOfAverageCalculations) {
+        this.averageNumberOfRequests = averageNumberOfRequests;
+        this.totalNumberOfRequests.add(totalNumberOfRequests);
+        this.numberOfAverageCalculations = numberOfAverageCalculations;
+    }
+
+    public int getTotalNumberOfRequests() {
+        return totalNumberOfRequests.intValue();
+    }
 
     public void registerRequest() {
-        totalNumberOfRequests++;
+        totalNumberOfRequests.increment();
     }
 
-    public void recalculateAverage() {
-        averageNumberOfRequests = (averageNumberOfRequests * numberOfAverageCalculations + totalNumberOfRequests)
-                / (numberOfAverageCalculations + 1);
+    public void registerRequests(long requests) {
+        totalNumberOfRequests.add(requests);
+    }
+
+    public synchronized void recalculateAverage() {
+        long requests = totalNumberOfRequests.sumThenReset();
+        averageNumberOfRequests =
+                (averageNumberOfRequests * numberOfAverageCalculations + requests) / (numberOfAverageCalculations + 1);
         numberOfAverageCalculations++;
-        totalNumberOfRequests = 0;
+    }
+
+    /* Averages add up the same way the total endpoint sums the averages of all endpoints. */
+    public synchronized void add(TimeframeStatistic folded) {
+        totalNumberOfRequests.add(folded.getTotalNumberOfRequests());
+        averageNumberOfRequests += folded.getAverageNumberOfRequests();
+        numberOfAverageCalculations = Math.max(numberOfAverageCalculations, folded.getNumberOfAverageCalculations());
+    }
+
+    public synchronized TimeframeStatistic snapshot() {
+        return new TimeframeStatistic(
+                averageNumberOfRequests, getTotalNumberOfRequests(), numberOfAverageCalculations);
     }
 }
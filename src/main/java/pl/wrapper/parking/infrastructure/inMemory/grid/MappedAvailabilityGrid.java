@@ -0,0 +1,179 @@
+package pl.wrapper.parking.infrastructure.inMemory.grid;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.WeeklyHistogram;
+
+/*
+ * Weekly availability grid kept in a memory-mapped file. Layout: a fixed header followed by one block per parking lot,
+ * each block holding parkingId, totalSpots and 7 x slotsPerDay cells of (sample count, mean availability), so a cell
+ * is found by offset arithmetic on parking block, day and slot. Writes land in the page cache as they happen.
+ */
+@Slf4j
+public final class MappedAvailabilityGrid implements AutoCloseable {
+    private static final int MAGIC = 0x50574752;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BLOCK_HEADER_SIZE = 8;
+    private static final int CELL_SIZE = 12;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final int blockSize;
+    private final Map<Integer, Block> blocks = new HashMap<>();
+    private volatile MappedByteBuffer buffer;
+    private int capacity;
+
+    private MappedAvailabilityGrid(Path path, FileChannel channel, int slotMinutes) {
+        this.path = path;
+        this.channel = channel;
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = WeeklyHistogram.slotsPerDay(slotMinutes);
+        this.blockSize = BLOCK_HEADER_SIZE + WeeklyHistogram.cellCount(slotMinutes) * CELL_SIZE;
+    }
+
+    public static MappedAvailabilityGrid open(Path path, int slotMinutes) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        MappedAvailabilityGrid grid =
+                new MappedAvailabilityGrid(path, FileChannel.open(path, CREATE, READ, WRITE), slotMinutes);
+        grid.load();
+        return grid;
+    }
+
+    public synchronized boolean isEmpty() {
+        return blocks.isEmpty();
+    }
+
+    public synchronized Map<Integer, ParkingData> parkings() {
+        Map<Integer, ParkingData> parkings = new HashMap<>();
+        blocks.keySet().forEach(parkingId -> parkings.put(parkingId, parkingData(parkingId)));
+        return parkings;
+    }
+
+    public synchronized ParkingData parkingData(int parkingId) {
+        Block block = blocks.get(parkingId);
+        return ParkingData.withHistogram(parkingId, buffer.getInt(block.offset + 4), block);
+    }
+
+    public synchronized AvailabilityData record(
+            int parkingId, int totalSpots, DayOfWeek day, LocalTime time, double availability) throws IOException {
+        return blockFor(parkingId, totalSpots).record(day, time, availability);
+    }
+
+    public synchronized void put(int parkingId, int totalSpots, DayOfWeek day, LocalTime time, AvailabilityData data)
+            throws IOException {
+        blockFor(parkingId, totalSpots).put(day, time, data);
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private int blockOffset(int block) {
+        return HEADER_SIZE + block * blockSize;
+    }
+
+    private Block blockFor(int parkingId, int totalSpots) throws IOException {
+        Block block = blocks.get(parkingId);
+        if (block != null) return block;
+
+        int index = blocks.size();
+        if (index == capacity) remap(capacity * 2);
+        block = new Block(blockOffset(index));
+        buffer.putInt(block.offset, parkingId);
+        buffer.putInt(block.offset + 4, totalSpots);
+        buffer.putInt(20, index + 1);
+        blocks.put(parkingId, block);
+        return block;
+    }
+
+    private void load() throws IOException {
+        if (channel.size() >= HEADER_SIZE) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            boolean compatible = header.getInt(0) == MAGIC
+                    && header.getInt(4) == VERSION
+                    && header.getInt(8) == slotMinutes
+                    && header.getInt(12) == slotsPerDay;
+            int storedCapacity = header.getInt(16);
+            int used = header.getInt(20);
+            if (compatible && channel.size() >= HEADER_SIZE + (long) storedCapacity * blockSize) {
+                capacity = storedCapacity;
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * blockSize);
+                for (int index = 0; index < used; index++) {
+                    Block block = new Block(blockOffset(index));
+                    blocks.put(buffer.getInt(block.offset), block);
+                }
+                log.info("Mapped availability grid of {} parking lots from {}", used, path);
+                return;
+            }
+            log.warn("Availability grid {} has an incompatible layout, starting a new one", path);
+            channel.truncate(0);
+        }
+
+        remap(INITIAL_CAPACITY);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, slotMinutes);
+        buffer.putInt(12, slotsPerDay);
+        buffer.putInt(20, 0);
+    }
+
+    private void remap(int newCapacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * blockSize);
+        buffer.putInt(16, newCapacity);
+        capacity = newCapacity;
+    }
+
+    private final class Block extends WeeklyHistogram {
+        private final int offset;
+
+        private Block(int offset) {
+            super(slotMinutes);
+            this.offset = offset;
+        }
+
+        @Override
+        protected int sampleCount(int cell) {
+            return buffer.getInt(cellOffset(cell));
+        }
+
+        @Override
+        protected double averageAvailability(int cell) {
+            return buffer.getDouble(cellOffset(cell) + 4);
+        }
+
+        @Override
+        protected void set(int cell, int sampleCount, double averageAvailability) {
+            int cellOffset = cellOffset(cell);
+            buffer.putDouble(cellOffset + 4, averageAvailability);
+            buffer.putInt(cellOffset, sampleCount);
+        }
+
+        private int cellOffset(int cell) {
+            return offset + BLOCK_HEADER_SIZE + cell * CELL_SIZE;
+        }
+    }
+}
@@ -2,24 +2,46 @@ package pl.wrapper.parking.infrastructure.interceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.time.LocalTime;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
-import pl.wrapper.parking.infrastructure.inMemory.ParkingRequestRepository;
+import org.springframework.web.servlet.HandlerMapping;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ParkingRequestInterceptor implements HandlerInterceptor {
-    private final ParkingRequestRepository parkingRequestRepository;
+    private static final String START_NANOS_ATTRIBUTE = ParkingRequestInterceptor.class.getName() + ".startNanos";
+
+    private final RequestStatsRecorder requestStatsRecorder;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_NANOS_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
 
     @Override
     public void afterCompletion(
             HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
         boolean isSuccessful = HttpStatus.Series.valueOf(response.getStatus()) == HttpStatus.Series.SUCCESSFUL;
-        parkingRequestRepository.updateRequestEndpointData(request.getRequestURI(), isSuccessful, LocalTime.now());
+        long durationNanos = request.getAttribute(START_NANOS_ATTRIBUTE) instanceof Long startNanos
+                ? System.nanoTime() - startNanos
+                : 0;
+        requestStatsRecorder.record(routeTemplate(request, handler), isSuccessful, durationNanos);
+    }
+
+    /*
+     * Stats are keyed by the matched controller mapping (e.g. /chart/{id}) rather than the raw URI, so path variables
+     * and unknown paths cannot grow the number of endpoints. Anything not served by a controller method is "other".
+     */
+    private static String routeTemplate(HttpServletRequest request, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return handler instanceof HandlerMethod && pattern instanceof String template
+                ? template
+                : RequestStatsRecorder.OTHER_ENDPOINT;
     }
 }
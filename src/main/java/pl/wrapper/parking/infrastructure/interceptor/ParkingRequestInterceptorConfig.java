@@ -4,18 +4,18 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import pl.wrapper.parking.infrastructure.inMemory.ParkingRequestRepository;
 
 @Configuration
 @RequiredArgsConstructor
 public class ParkingRequestInterceptorConfig implements WebMvcConfigurer {
-    private final ParkingRequestRepository parkingRequestRepository;
+    private final RequestStatsRecorder requestStatsRecorder;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new ParkingRequestInterceptor(parkingRequestRepository))
+        registry.addInterceptor(new ParkingRequestInterceptor(requestStatsRecorder))
                 .addPathPatterns("/**")
                 .excludePathPatterns("/stats/**")
+                .excludePathPatterns("/parkings/stream")
                 .excludePathPatterns("/swagger-ui/**")
                 .excludePathPatterns("/v3/api-docs/**");
     }
@@ -0,0 +1,67 @@
+package pl.wrapper.parking.infrastructure.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Bounded multi-producer single-consumer ring of request events. Producers claim a slot with one CAS on the tail and
+ * publish it by advancing the slot's sequence number; the consumer only reads slots whose sequence says they are
+ * published, so no locks are taken on either side. A full ring rejects the event instead of waiting.
+ */
+final class RequestEventBuffer {
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final int[] endpoints;
+    private final long[] timestamps;
+    private final long[] durations;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    RequestEventBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two, got: " + capacity);
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.endpoints = new int[capacity];
+        this.timestamps = new long[capacity];
+        this.durations = new long[capacity];
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    boolean offer(int endpointId, boolean successful, long timestampMillis, long durationNanos) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long sequence = sequences.get(slot);
+            if (sequence < position) return false;
+            if (sequence == position && tail.compareAndSet(position, position + 1)) {
+                endpoints[slot] = endpointId << 1 | (successful ? 1 : 0);
+                timestamps[slot] = timestampMillis;
+                durations[slot] = durationNanos;
+                sequences.set(slot, position + 1);
+                return true;
+            }
+        }
+    }
+
+    /* Consumer thread only. */
+    int drain(EventHandler handler, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) break;
+
+            int endpoint = endpoints[slot];
+            handler.onEvent(endpoint >>> 1, (endpoint & 1) == 1, timestamps[slot], durations[slot]);
+            sequences.set(slot, head + mask + 1);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    @FunctionalInterface
+    interface EventHandler {
+        void onEvent(int endpointId, boolean successful, long timestampMillis, long durationNanos);
+    }
+}
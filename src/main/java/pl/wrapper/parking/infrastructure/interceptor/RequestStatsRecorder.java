@@ -0,0 +1,170 @@
+package pl.wrapper.parking.infrastructure.interceptor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import pl.wrapper.parking.infrastructure.inMemory.ParkingRequestRepository;
+import pl.wrapper.parking.infrastructure.inMemory.RequestLatencyRepository;
+
+/*
+ * Moves request accounting off the request thread: the interceptor only interns the endpoint and enqueues an event,
+ * and a single recorder thread folds drained events into per-endpoint, per-minute counts before updating
+ * ParkingRequestRepository once per group; handler durations go into RequestLatencyRepository. Events that do not
+ * fit into the buffer are counted as dropped, and endpoints beyond request-stats.max-endpoints are recorded under
+ * "other".
+ */
+@Slf4j
+@Component
+public class RequestStatsRecorder implements MeterBinder {
+    public static final String OTHER_ENDPOINT = ParkingRequestRepository.OTHER_ENDPOINT_NAME;
+    private static final int BATCH_SIZE = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final ParkingRequestRepository parkingRequestRepository;
+    private final RequestLatencyRepository requestLatencyRepository;
+    private final RequestEventBuffer buffer;
+    private final int maxEndpoints;
+    private final Map<String, Integer> endpointIds = new ConcurrentHashMap<>();
+    private final List<String> endpoints = new CopyOnWriteArrayList<>();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final Map<Long, long[]> batch = new HashMap<>();
+    private long lastEpochMinute = -1;
+    private LocalTime lastMinute;
+    private volatile boolean running;
+    private Thread recorderThread;
+
+    public RequestStatsRecorder(
+            ParkingRequestRepository parkingRequestRepository,
+            RequestLatencyRepository requestLatencyRepository,
+            @Value("${request-stats.buffer.capacity}") int bufferCapacity,
+            @Value("${request-stats.max-endpoints}") int maxEndpoints) {
+        this.parkingRequestRepository = parkingRequestRepository;
+        this.requestLatencyRepository = requestLatencyRepository;
+        this.buffer = new RequestEventBuffer(bufferCapacity);
+        this.maxEndpoints = maxEndpoints;
+        endpointId(OTHER_ENDPOINT);
+    }
+
+    public void record(String endpoint, boolean successful, long durationNanos) {
+        if (!buffer.offer(endpointId(endpoint), successful, System.currentTimeMillis(), durationNanos))
+            droppedEvents.increment();
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEvents.sum();
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        recorderThread = Thread.ofPlatform()
+                .name("request-stats-recorder")
+                .daemon(true)
+                .start(this::recordLoop);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(recorderThread);
+        recorderThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /* Loaded stats may still hold raw request URIs of older snapshots; only mapped route templates keep their key. */
+    @EventListener
+    void foldUnmappedEndpoints(ApplicationReadyEvent event) {
+        Set<String> templates = event.getApplicationContext()
+                .getBeansOfType(RequestMappingHandlerMapping.class)
+                .values()
+                .stream()
+                .flatMap(mapping -> mapping.getHandlerMethods().keySet().stream())
+                .flatMap(info -> info.getPatternValues().stream())
+                .collect(Collectors.toSet());
+        parkingRequestRepository.foldEndpoints(templates::contains, maxEndpoints);
+    }
+
+    /* Recorder thread only; also drives the buffer directly in tests. */
+    int drainBatch() {
+        int drained = buffer.drain(this::aggregate, BATCH_SIZE);
+        if (drained == 0) return 0;
+
+        batch.forEach((key, counts) -> {
+            String endpoint = endpoints.get((int) (key >>> 32));
+            parkingRequestRepository.updateRequestEndpointData(
+                    endpoint, counts[0], counts[1], minuteOfDay(key & 0xFFFFFFFFL));
+        });
+        batch.clear();
+        return drained;
+    }
+
+    private void recordLoop() {
+        while (running) {
+            try {
+                if (drainBatch() == 0) LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } catch (RuntimeException e) {
+                log.error("Failed to record request statistics batch", e);
+            }
+        }
+        while (drainBatch() > 0) {}
+    }
+
+    private void aggregate(int endpointId, boolean successful, long timestampMillis, long durationNanos) {
+        long epochMinute = TimeUnit.MILLISECONDS.toMinutes(timestampMillis);
+        long[] counts = batch.computeIfAbsent((long) endpointId << 32 | epochMinute, key -> new long[2]);
+        counts[0]++;
+        if (successful) counts[1]++;
+        requestLatencyRepository.record(
+                endpoints.get(endpointId), minuteOfDay(epochMinute), TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+
+    private LocalTime minuteOfDay(long epochMinute) {
+        if (epochMinute != lastEpochMinute) {
+            lastMinute = LocalTime.ofInstant(Instant.ofEpochSecond(epochMinute * 60), ZoneId.systemDefault());
+            lastEpochMinute = epochMinute;
+        }
+        return lastMinute;
+    }
+
+    private int endpointId(String endpoint) {
+        Integer id = endpointIds.get(endpoint);
+        if (id != null) return id;
+        if (endpointIds.size() >= maxEndpoints) return endpointIds.get(OTHER_ENDPOINT);
+        return endpointIds.computeIfAbsent(endpoint, this::registerEndpoint);
+    }
+
+    private int registerEndpoint(String endpoint) {
+        synchronized (endpoints) {
+            endpoints.add(endpoint);
+            return endpoints.size() - 1;
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("requests.stats.dropped", droppedEvents, LongAdder::doubleValue)
+                .description("Request statistics events dropped because the recording buffer was full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,155 @@
+package pl.wrapper.parking.infrastructure.nominatim.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.wrapper.parking.facade.dto.main.NominatimLocation;
+import pl.wrapper.parking.infrastructure.inMemory.SnapshotFiles;
+import pl.wrapper.parking.infrastructure.nominatim.client.NominatimClient;
+
+@Slf4j
+@Component
+public class GeocodingCache implements MeterBinder {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern COMMA = Pattern.compile("\\s*,\\s*");
+
+    private final NominatimClient nominatimClient;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final File file;
+    private final Cache<String, CachedGeocode> cache;
+    private final GeocodingCacheCodec codec = new GeocodingCacheCodec();
+
+    public GeocodingCache(
+            NominatimClient nominatimClient,
+            @Value("${geocoding.cache.maximum-size}") long maximumSize,
+            @Value("${geocoding.cache.ttl.days}") long ttlDays,
+            @Value("${geocoding.cache.negative-ttl.hours}") long negativeTtlHours,
+            @Value("${geocoding.cache.location:}") String location) {
+        this.nominatimClient = nominatimClient;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.negativeTtl = Duration.ofHours(negativeTtlHours);
+        this.file = location.isBlank() ? null : new File(location);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, CachedGeocode>() {
+                    @Override
+                    public long expireAfterCreate(
+                            @NonNull String address, @NonNull CachedGeocode geocode, long currentTime) {
+                        return remainingTtl(geocode).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(
+                            @NonNull String address,
+                            @NonNull CachedGeocode geocode,
+                            long currentTime,
+                            long currentDuration) {
+                        return remainingTtl(geocode).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(
+                            @NonNull String address,
+                            @NonNull CachedGeocode geocode,
+                            long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public Optional<NominatimLocation> geocode(String address) {
+        return cache.get(normalize(address), this::resolve).toLocation();
+    }
+
+    static String normalize(String address) {
+        String collapsed = WHITESPACE.matcher(address.strip()).replaceAll(" ");
+        return COMMA.matcher(collapsed).replaceAll(", ").toLowerCase(Locale.ROOT);
+    }
+
+    private CachedGeocode resolve(String normalizedAddress) {
+        Optional<NominatimLocation> location = nominatimClient.search(normalizedAddress, "json").next().blockOptional();
+        return CachedGeocode.of(location, System.currentTimeMillis());
+    }
+
+    private Duration remainingTtl(CachedGeocode geocode) {
+        Duration entryTtl = geocode.found() ? ttl : negativeTtl;
+        Duration age = Duration.ofMillis(System.currentTimeMillis() - geocode.resolvedAtMillis());
+        Duration remaining = entryTtl.minus(age);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    @PostConstruct
+    void load() {
+        if (file == null || !file.exists()) return;
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            Map<String, CachedGeocode> stored = codec.read(in);
+            stored.forEach((address, geocode) -> {
+                if (!remainingTtl(geocode).isZero()) cache.put(address, geocode);
+            });
+            log.info("Loaded {} geocoding results from {}", cache.estimatedSize(), file.getPath());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load geocoding cache from {}, starting empty. Reason: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedRateString = "#{60 * 1000 * ${serialization.timeStamp.inMinutes}}", initialDelay = 10 * 1000)
+    synchronized void persist() {
+        if (file == null) return;
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            codec.write(new HashMap<>(cache.asMap()), out);
+            SnapshotFiles.writeAtomically(file.toPath(), out.toByteArray());
+        } catch (IOException e) {
+            log.warn("Could not persist geocoding cache to {}. Reason: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "geocodingCache");
+    }
+
+    record CachedGeocode(boolean found, double latitude, double longitude, long resolvedAtMillis)
+            implements Serializable {
+
+        static CachedGeocode of(Optional<NominatimLocation> location, long resolvedAtMillis) {
+            return location.map(found -> new CachedGeocode(true, found.latitude(), found.longitude(), resolvedAtMillis))
+                    .orElseGet(() -> new CachedGeocode(false, 0, 0, resolvedAtMillis));
+        }
+
+        Optional<NominatimLocation> toLocation() {
+            return found ? Optional.of(new NominatimLocation(latitude, longitude)) : Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package pl.wrapper.parking.infrastructure.nominatim.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import pl.wrapper.parking.infrastructure.inMemory.codec.BinarySnapshotCodec;
+import pl.wrapper.parking.infrastructure.nominatim.cache.GeocodingCache.CachedGeocode;
+
+class GeocodingCacheCodec extends BinarySnapshotCodec<String, CachedGeocode> {
+    private static final int VERSION = 1;
+
+    @Override
+    protected int version() {
+        return VERSION;
+    }
+
+    @Override
+    protected void writePayload(Map<String, CachedGeocode> data, DataOutputStream out) throws IOException {
+        out.writeInt(data.size());
+        for (Map.Entry<String, CachedGeocode> entry : data.entrySet()) {
+            CachedGeocode geocode = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeBoolean(geocode.found());
+            out.writeDouble(geocode.latitude());
+            out.writeDouble(geocode.longitude());
+            out.writeLong(geocode.resolvedAtMillis());
+        }
+    }
+
+    @Override
+    protected Map<String, CachedGeocode> readPayload(DataInputStream in, int version) throws IOException {
+        int entryCount = in.readInt();
+        Map<String, CachedGeocode> data = new HashMap<>();
+        for (int i = 0; i < entryCount; i++) {
+            String address = in.readUTF();
+            data.put(address, new CachedGeocode(in.readBoolean(), in.readDouble(), in.readDouble(), in.readLong()));
+        }
+        return data;
+    }
+}
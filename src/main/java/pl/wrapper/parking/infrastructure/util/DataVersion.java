@@ -0,0 +1,35 @@
+package pl.wrapper.parking.infrastructure.util;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.WebRequest;
+
+/*
+ * Etags are the change time plus a per-process counter, so two changes within one millisecond still get different
+ * etags. Content is compared with equals: a hash of it would let different content keep the old etag.
+ */
+public record DataVersion(String etag, Instant lastModified) {
+    private static final AtomicLong CHANGES = new AtomicLong();
+
+    public static DataVersion changedNow() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        String tag = Long.toHexString(now.toEpochMilli()) + "-" + Long.toHexString(CHANGES.incrementAndGet());
+        return new DataVersion(weakEtag(tag), now);
+    }
+
+    public static DataVersion ofContent(
+            Object data, @Nullable Object previousData, @Nullable DataVersion previousVersion) {
+        if (previousVersion != null && data.equals(previousData)) return previousVersion;
+        return changedNow();
+    }
+
+    public static boolean checkNotModified(@Nullable DataVersion version, WebRequest request) {
+        return version != null && request.checkNotModified(version.etag(), version.lastModified().toEpochMilli());
+    }
+
+    private static String weakEtag(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,30 @@
+package pl.wrapper.parking.infrastructure.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class PrettyPrintUtils {
+
+    public static final String PRETTY_PARAM = "pretty";
+
+    public static boolean isPrettyPrintRequested() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && isPrettyPrintRequested(attributes.getRequest());
+    }
+
+    public static boolean isPrettyPrintRequested(HttpServletRequest request) {
+        if (Boolean.parseBoolean(request.getParameter(PRETTY_PARAM))) return true;
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || !accept.contains(PRETTY_PARAM)) return false;
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> Boolean.parseBoolean(mediaType.getParameter(PRETTY_PARAM)));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
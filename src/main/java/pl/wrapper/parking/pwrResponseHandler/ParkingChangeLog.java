@@ -0,0 +1,9 @@
+package pl.wrapper.parking.pwrResponseHandler;
+
+import org.springframework.lang.Nullable;
+import pl.wrapper.parking.infrastructure.error.Result;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingChanges;
+
+public interface ParkingChangeLog {
+    Result<ParkingChanges> changesSince(@Nullable String version);
+}
@@ -0,0 +1,11 @@
+package pl.wrapper.parking.pwrResponseHandler;
+
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
+
+/*
+ * Consumer of the snapshots published by the ingest scheduler. Sinks are called one after another on the scheduler
+ * thread, in @Order order; a sink that only needs some of the ticks decides for itself which ones to skip.
+ */
+public interface ParkingSnapshotSink {
+    void onSnapshot(ParkingSnapshot snapshot);
+}
@@ -1,10 +1,13 @@
 package pl.wrapper.parking.pwrResponseHandler;
 
 import java.util.List;
+import pl.wrapper.parking.infrastructure.util.DataVersion;
 import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
 
 public interface PwrApiServerCaller {
     List<ParkingResponse> fetchParkingData();
 
     List<Object> getAllCharsForToday();
+
+    DataVersion getParkingDataVersion();
 }
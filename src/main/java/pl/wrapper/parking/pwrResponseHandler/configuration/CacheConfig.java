@@ -1,16 +1,43 @@
 package pl.wrapper.parking.pwrResponseHandler.configuration;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @EnableCaching
 @Configuration
 class CacheConfig {
+
+    @Value("${pwr-api.cache.maximum-size}")
+    private long maximumSize;
+
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("parkingListCache", "chartCache");
+    public CacheManager cacheManager(
+            @Value("${pwr-api.cache.parkingListCache.expire-after-write.minutes}") long parkingListTtl,
+            @Value("${pwr-api.cache.chartCache.expire-after-write.minutes}") long chartTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache("parkingListCache", buildCache(Duration.ofMinutes(parkingListTtl)));
+        cacheManager.registerCustomCache("chartCache", buildCache(Duration.ofMinutes(chartTtl)));
+        return cacheManager;
+    }
+
+    private Cache<Object, Object> buildCache(Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterWrite)
+                .maximumSize(maximumSize)
+                .executor(ForkJoinPool.commonPool())
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
     }
 }
@@ -1,15 +0,0 @@
-package pl.wrapper.parking.pwrResponseHandler.configuration;
-
-import java.util.List;
-import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
-import org.springframework.stereotype.Component;
-
-@Component
-class CacheCustomizer implements CacheManagerCustomizer<ConcurrentMapCacheManager> {
-
-    @Override
-    public void customize(ConcurrentMapCacheManager cacheManager) {
-        cacheManager.setCacheNames(List.of("parkingListCache", "chartCache"));
-    }
-}
@@ -0,0 +1,63 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import pl.wrapper.parking.infrastructure.error.ParkingError;
+import pl.wrapper.parking.infrastructure.error.Result;
+import pl.wrapper.parking.pwrResponseHandler.ParkingChangeLog;
+import pl.wrapper.parking.pwrResponseHandler.ParkingSnapshotSink;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingChanges;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
+
+/*
+ * Keeps the diffs of the last history-size snapshots that changed anything. Any version newer than the oldest dropped
+ * diff is answered with the merged deltas since that version, older or foreign versions get the full list.
+ */
+@Service
+public class ParkingChangeLogImpl implements ParkingChangeLog, ParkingSnapshotSink {
+    private final int historySize;
+    private final ArrayDeque<ParkingSnapshot> history = new ArrayDeque<>();
+
+    private ParkingSnapshot latest;
+    private long coveredFrom;
+
+    public ParkingChangeLogImpl(@Value("${pwr-api.changes.history-size}") int historySize) {
+        this.historySize = historySize;
+    }
+
+    @Override
+    public synchronized void onSnapshot(ParkingSnapshot snapshot) {
+        latest = snapshot;
+        if (snapshot.unchanged()) return;
+
+        history.addLast(snapshot);
+        if (history.size() > historySize) coveredFrom = history.removeFirst().sequence();
+    }
+
+    @Override
+    public synchronized Result<ParkingChanges> changesSince(@Nullable String version) {
+        if (latest == null) return Result.failure(new ParkingError.ParkingChangesNotAvailable());
+
+        OptionalLong since = ParkingSnapshot.sequenceOf(version);
+        if (since.isEmpty() || since.getAsLong() < coveredFrom || since.getAsLong() > latest.sequence())
+            return Result.success(new ParkingChanges(
+                    latest.version(),
+                    true,
+                    latest.parkings().stream().map(ParkingSnapshotDiff::added).toList()));
+
+        Map<Integer, ParkingDelta> merged = new LinkedHashMap<>();
+        for (ParkingSnapshot snapshot : history) {
+            if (snapshot.sequence() <= since.getAsLong()) continue;
+            for (ParkingDelta delta : snapshot.changes())
+                merged.merge(delta.parkingId(), delta, ParkingSnapshotDiff::merge);
+        }
+        return Result.success(new ParkingChanges(latest.version(), false, List.copyOf(merged.values())));
+    }
+}
@@ -0,0 +1,66 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.wrapper.parking.pwrResponseHandler.ParkingSnapshotSink;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
+
+/*
+ * The only scheduled reader of the Pwr api parking list: every tick fetches it once and hands the same snapshot to
+ * all sinks, so the live cache, the request-facing indexes, the weekly stats and the historic data agree on what
+ * was observed. Each snapshot carries its diff against the previous one, so sinks can skip ticks that changed nothing.
+ * A failed fetch publishes nothing and every sink keeps its last snapshot.
+ */
+@Slf4j
+@Component
+class ParkingIngestScheduler {
+    private final PwrApiCaller pwrApiCaller;
+    private final List<ParkingSnapshotSink> sinks;
+    private long sequence;
+    private List<ParkingResponse> previous = List.of();
+
+    ParkingIngestScheduler(PwrApiCaller pwrApiCaller, List<ParkingSnapshotSink> sinks) {
+        this.pwrApiCaller = pwrApiCaller;
+        this.sinks = sinks;
+    }
+
+    @Scheduled(fixedRateString = "${pwr-api.ingest.minutes}", timeUnit = TimeUnit.MINUTES)
+    synchronized void ingest() {
+        List<ParkingResponse> parkings;
+        try {
+            parkings = pwrApiCaller.fetchParkingPlaces().block();
+        } catch (RuntimeException e) {
+            log.warn("Ingest from Pwr api failed, consumers keep the last snapshot. Reason: {}", e.getMessage());
+            return;
+        }
+        if (parkings == null) {
+            log.warn("Pwr api returned no data, consumers keep the last snapshot");
+            return;
+        }
+
+        ParkingSnapshot snapshot = new ParkingSnapshot(
+                ++sequence, LocalDateTime.now(), parkings, ParkingSnapshotDiff.diff(previous, parkings));
+        previous = snapshot.parkings();
+        log.info(
+                "Publishing parking snapshot {} with {} lots, {} changed",
+                snapshot.sequence(),
+                parkings.size(),
+                snapshot.changes().size());
+        for (ParkingSnapshotSink sink : sinks) {
+            try {
+                sink.onSnapshot(snapshot);
+            } catch (RuntimeException e) {
+                log.warn(
+                        "Snapshot sink {} failed on snapshot {}. Reason: {}",
+                        sink.getClass().getSimpleName(),
+                        snapshot.sequence(),
+                        e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.lang.Nullable;
+import pl.wrapper.parking.pwrResponseHandler.dto.Address;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+final class ParkingResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String UNKNOWN = "unknown";
+
+    private ParkingResponseParser() {}
+
+    static List<ParkingResponse> parse(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(parser, "Expected JSON object as response root");
+
+            List<ParkingResponse> parkings = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if ("places".equals(field) && valueToken == JsonToken.START_ARRAY) parkings = parsePlaces(parser);
+                else parser.skipChildren();
+            }
+            if (parkings == null) throw new JsonParseException(parser, "Missing 'places' array in response");
+            return parkings;
+        }
+    }
+
+    private static List<ParkingResponse> parsePlaces(JsonParser parser) throws IOException {
+        List<ParkingResponse> parkings = new ArrayList<>();
+        int parkingId = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            parkings.add(parsePlace(parser, ++parkingId));
+        }
+        return parkings;
+    }
+
+    private static ParkingResponse parsePlace(JsonParser parser, int parkingId) throws IOException {
+        String freeSpots = null, totalSpots = null, name = null, symbol = null, openHour = null, closeHour = null,
+                address = null, geoLat = null, geoLon = null, trend = null, photo = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            if (valueToken.isStructStart()) {
+                parser.skipChildren();
+                continue;
+            }
+            String value = valueToken == JsonToken.VALUE_NULL ? null : parser.getText();
+            switch (field) {
+                case "liczba_miejsc" -> freeSpots = value;
+                case "places" -> totalSpots = value;
+                case "nazwa" -> name = value;
+                case "symbol" -> symbol = value;
+                case "open_hour" -> openHour = value;
+                case "close_hour" -> closeHour = value;
+                case "address" -> address = value;
+                case "geo_lat" -> geoLat = value;
+                case "geo_lan" -> geoLon = value;
+                case "trend" -> trend = value;
+                case "photo" -> photo = value;
+                default -> {}
+            }
+        }
+
+        int boundlessFreeSpots = freeSpots == null ? 0 : Integer.parseInt(freeSpots);
+        int parsedTotalSpots = totalSpots == null ? 0 : Integer.parseInt(totalSpots);
+        return ParkingResponse.builder()
+                .parkingId(parkingId)
+                .name(orUnknown(name))
+                .freeSpots(Math.max(0, Math.min(parsedTotalSpots, boundlessFreeSpots)))
+                .symbol(orUnknown(symbol))
+                .openingHours(getParsedTime(openHour))
+                .closingHours(getParsedTime(closeHour))
+                .totalSpots(parsedTotalSpots)
+                .address(new Address(orUnknown(address).strip(), Float.parseFloat(geoLat), Float.parseFloat(geoLon)))
+                .trend(trend == null ? 0 : Short.parseShort(trend))
+                .urlToPhoto(orUnknown(photo))
+                .build();
+    }
+
+    private static String orUnknown(@Nullable String value) {
+        return value == null ? UNKNOWN : value;
+    }
+
+    private static LocalTime getParsedTime(@Nullable String time) {
+        if (time == null) return null;
+        return LocalTime.parse(time, DateTimeFormatter.ISO_LOCAL_TIME);
+    }
+}
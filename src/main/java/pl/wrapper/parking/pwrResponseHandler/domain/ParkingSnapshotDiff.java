@@ -0,0 +1,78 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta.Change;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+/*
+ * Field level diff of two parking lists, matched by parkingId. A lot listed twice counts with its first entry, the same
+ * way lookups by id resolve it.
+ */
+final class ParkingSnapshotDiff {
+    private static final Map<String, Function<ParkingResponse, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("freeSpots", ParkingResponse::freeSpots);
+        FIELDS.put("totalSpots", ParkingResponse::totalSpots);
+        FIELDS.put("name", ParkingResponse::name);
+        FIELDS.put("symbol", ParkingResponse::symbol);
+        FIELDS.put("openingHours", ParkingResponse::openingHours);
+        FIELDS.put("closingHours", ParkingResponse::closingHours);
+        FIELDS.put("address", ParkingResponse::address);
+        FIELDS.put("trend", ParkingResponse::trend);
+        FIELDS.put("urlToPhoto", ParkingResponse::urlToPhoto);
+    }
+
+    private ParkingSnapshotDiff() {}
+
+    static List<ParkingDelta> diff(List<ParkingResponse> previous, List<ParkingResponse> next) {
+        Map<Integer, ParkingResponse> previousById = byId(previous);
+        Map<Integer, ParkingResponse> nextById = byId(next);
+
+        List<ParkingDelta> deltas = new ArrayList<>();
+        for (ParkingResponse parking : nextById.values()) {
+            ParkingResponse before = previousById.get(parking.parkingId());
+            if (before == null) {
+                deltas.add(added(parking));
+            } else if (!before.equals(parking)) {
+                Map<String, Object> changed = new LinkedHashMap<>();
+                FIELDS.forEach((name, field) -> {
+                    Object value = field.apply(parking);
+                    if (!Objects.equals(field.apply(before), value)) changed.put(name, value);
+                });
+                deltas.add(new ParkingDelta(parking.parkingId(), Change.UPDATED, changed));
+            }
+        }
+        for (ParkingResponse parking : previousById.values())
+            if (!nextById.containsKey(parking.parkingId()))
+                deltas.add(new ParkingDelta(parking.parkingId(), Change.REMOVED, Map.of()));
+        return deltas;
+    }
+
+    static ParkingDelta added(ParkingResponse parking) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        FIELDS.forEach((name, field) -> fields.put(name, field.apply(parking)));
+        return new ParkingDelta(parking.parkingId(), Change.ADDED, fields);
+    }
+
+    /* Collapses two consecutive deltas of one lot into the delta a client skipping the middle snapshot would need. */
+    static ParkingDelta merge(ParkingDelta earlier, ParkingDelta later) {
+        if (later.change() != Change.UPDATED || earlier.change() == Change.REMOVED) return later;
+
+        Map<String, Object> fields = new LinkedHashMap<>(earlier.fields());
+        fields.putAll(later.fields());
+        return new ParkingDelta(later.parkingId(), earlier.change(), fields);
+    }
+
+    private static Map<Integer, ParkingResponse> byId(List<ParkingResponse> parkings) {
+        Map<Integer, ParkingResponse> byId = new LinkedHashMap<>(parkings.size() * 2);
+        for (ParkingResponse parking : parkings) byId.putIfAbsent(parking.parkingId(), parking);
+        return byId;
+    }
+}
@@ -1,18 +1,16 @@
 package pl.wrapper.parking.pwrResponseHandler.domain;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
-import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import pl.wrapper.parking.pwrResponseHandler.dto.Address;
 import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -22,22 +20,21 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public final class PwrApiCaller {
 
+    private static final String PARKS_CALL_KEY = "parks";
+    private static final String CHART_CALL_KEY_PREFIX = "chart:";
+
     private final WebClient webClient;
+    private final RequestCoalescer requestCoalescer;
 
     public Mono<List<ParkingResponse>> fetchParkingPlaces() {
-        return webClient
+        return requestCoalescer.coalesce(PARKS_CALL_KEY, () -> webClient
                 .post()
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(createDummyParkingMap())
                 .retrieve()
-                .bodyToMono(HashMap.class)
-                .flatMap(parkingResponses -> {
-                    try {
-                        return Mono.just(parseResponse(parkingResponses.get("places")));
-                    } catch (ClassCastException e) {
-                        return Mono.error(e);
-                    }
-                });
+                .bodyToFlux(DataBuffer.class)
+                .as(DataBufferUtils::join)
+                .flatMap(PwrApiCaller::parseResponse));
     }
 
     private static HashMap<String, String> createDummyParkingMap() {
@@ -46,43 +43,12 @@ public final class PwrApiCaller {
         return body;
     }
 
-    @SuppressWarnings("unchecked")
-    private static List<ParkingResponse> parseResponse(Object unparsedResponse) throws ClassCastException {
-        List<ParkingResponse> returnList = new ArrayList<>();
-        ArrayList<Object> firstTierCastList = (ArrayList<Object>) unparsedResponse;
-        int parkingId = 0;
-        for (Object currentParkingPrecast : firstTierCastList) {
-            LinkedHashMap<String, String> currentParking;
-            try {
-                currentParking = (LinkedHashMap<String, String>) currentParkingPrecast;
-            } catch (ClassCastException e) {
-                continue;
-            }
-            int boundlessFreeSpots = Integer.parseInt(currentParking.getOrDefault("liczba_miejsc", "0"));
-            int totalSpots = Integer.parseInt(currentParking.getOrDefault("places", "0"));
-            ParkingResponse currentResponse = ParkingResponse.builder()
-                    .parkingId(++parkingId)
-                    .name(currentParking.getOrDefault("nazwa", "unknown"))
-                    .freeSpots(Math.max(0, Math.min(totalSpots, boundlessFreeSpots)))
-                    .symbol(currentParking.getOrDefault("symbol", "unknown"))
-                    .openingHours(PwrApiCaller.getParsedTime(currentParking.get("open_hour")))
-                    .closingHours(PwrApiCaller.getParsedTime(currentParking.get("close_hour")))
-                    .totalSpots(totalSpots)
-                    .address(new Address(
-                            currentParking.getOrDefault("address", "unknown").strip(),
-                            Float.parseFloat(currentParking.get("geo_lat")),
-                            Float.parseFloat(currentParking.get("geo_lan"))))
-                    .trend(Short.parseShort(currentParking.getOrDefault("trend", "0")))
-                    .urlToPhoto(currentParking.getOrDefault("photo", "unknown"))
-                    .build();
-            returnList.add(currentResponse);
+    private static Mono<List<ParkingResponse>> parseResponse(DataBuffer responseBody) {
+        try (InputStream body = responseBody.asInputStream(true)) {
+            return Mono.just(ParkingResponseParser.parse(body));
+        } catch (IOException | RuntimeException e) {
+            return Mono.error(e);
         }
-        return returnList;
-    }
-
-    private static LocalTime getParsedTime(@Nullable String time) {
-        if (time == null) return null;
-        return LocalTime.parse(time, DateTimeFormatter.ISO_LOCAL_TIME);
     }
 
     private static HashMap<String, String> createDummyChartMap(int forId) {
@@ -95,13 +61,13 @@ public final class PwrApiCaller {
     private static final Integer[] ID_MAPPER = {4, 2, 5, 6, 7};
 
     private Mono<Object> fetchParkingChart(int forId) {
-        return webClient
+        return requestCoalescer.<Object>coalesce(CHART_CALL_KEY_PREFIX + forId, () -> webClient
                 .post()
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(createDummyChartMap(forId))
                 .retrieve()
                 .bodyToMono(HashMap.class)
-                .flatMap(Mono::just);
+                .flatMap(Mono::just));
     }
 
     public Mono<List<Object>> fetchAllParkingCharts() {
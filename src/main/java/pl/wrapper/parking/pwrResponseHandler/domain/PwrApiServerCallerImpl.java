@@ -2,46 +2,114 @@ package pl.wrapper.parking.pwrResponseHandler.domain;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import pl.wrapper.parking.infrastructure.util.DataVersion;
+import pl.wrapper.parking.pwrResponseHandler.ParkingSnapshotSink;
 import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
 import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
 
+/*
+ * The parking list cache is filled by the ingest scheduler, ahead of every other snapshot sink so that they read the
+ * new list through fetchParkingData(). A miss (before the first tick, or after ticks kept failing past
+ * expire-after-write) still falls through to the Pwr api.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
-public class PwrApiServerCallerImpl implements PwrApiServerCaller {
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PwrApiServerCallerImpl implements PwrApiServerCaller, ParkingSnapshotSink {
+
+    static final String PARKING_LIST_CACHE = "parkingListCache";
+    static final String CHART_CACHE = "chartCache";
 
-    private static final int CACHE_TTL_MIN = 3;
     private final PwrApiCaller pwrApiCaller;
+    private final CacheManager cacheManager;
+
+    private volatile VersionedParkingData versionedParkingData;
 
     @Override
-    @Cacheable("parkingListCache")
+    @Cacheable(cacheNames = PARKING_LIST_CACHE, sync = true)
     public List<ParkingResponse> fetchParkingData() {
         log.info("Fetching new data from Pwr api.");
-        List<ParkingResponse> data = pwrApiCaller.fetchParkingPlaces().block();
+        List<ParkingResponse> data = trackVersion(pwrApiCaller.fetchParkingPlaces().block());
         log.info("Data fetched successfully");
         return data;
     }
 
-    @CacheEvict(
-            value = {"parkingListCache", "chartCache"},
-            allEntries = true)
-    @Scheduled(fixedRate = CACHE_TTL_MIN, timeUnit = TimeUnit.MINUTES)
-    public void flushCache() {
-        log.info("Cache flushed. New data can be fetched.");
-    }
-
     @Override
-    @Cacheable("chartCache")
+    @Cacheable(cacheNames = CHART_CACHE, sync = true)
     public List<Object> getAllCharsForToday() {
         log.info("Fetching new chart data from Pwr api.");
         List<Object> charts = pwrApiCaller.fetchAllParkingCharts().block();
         log.info("Charts fetched successfully");
         return charts;
     }
+
+    @Override
+    public DataVersion getParkingDataVersion() {
+        VersionedParkingData current = versionedParkingData;
+        Cache cache = cacheManager.getCache(PARKING_LIST_CACHE);
+        if (current == null || cache == null) return null;
+        Cache.ValueWrapper cached = cache.get(SimpleKey.EMPTY);
+        return cached != null && cached.get() == current.data() ? current.version() : null;
+    }
+
+    @Override
+    public void onSnapshot(ParkingSnapshot snapshot) {
+        Cache cache = cacheManager.getCache(PARKING_LIST_CACHE);
+        if (cache == null) return;
+
+        Cache.ValueWrapper cached = cache.get(SimpleKey.EMPTY);
+        if (snapshot.unchanged() && cached != null && cached.get() != null) {
+            /* same list instance, so its version and everything built from it stays valid */
+            cache.put(SimpleKey.EMPTY, cached.get());
+            return;
+        }
+        cache.put(SimpleKey.EMPTY, trackVersion(snapshot.parkings()));
+    }
+
+    @Scheduled(
+            fixedRateString = "${pwr-api.cache.soft-ttl.minutes}",
+            initialDelayString = "${pwr-api.cache.soft-ttl.minutes}",
+            timeUnit = TimeUnit.MINUTES)
+    public void refreshCache() {
+        refreshAhead(CHART_CACHE, () -> pwrApiCaller.fetchAllParkingCharts().block());
+    }
+
+    private void refreshAhead(String cacheName, Supplier<Object> upstreamCall) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || cache.get(SimpleKey.EMPTY) == null) return;
+
+        try {
+            Object fresh = upstreamCall.get();
+            if (fresh == null) throw new IllegalStateException("Pwr api returned no data");
+            cache.put(SimpleKey.EMPTY, fresh);
+            log.info("Cache {} refreshed in background.", cacheName);
+        } catch (RuntimeException e) {
+            log.warn("Refresh of {} failed, serving last fetched data. Reason: {}", cacheName, e.getMessage());
+        }
+    }
+
+    private List<ParkingResponse> trackVersion(List<ParkingResponse> data) {
+        if (data == null) return null;
+        VersionedParkingData previous = versionedParkingData;
+        DataVersion version = previous == null
+                ? DataVersion.changedNow()
+                : DataVersion.ofContent(data, previous.data(), previous.version());
+        versionedParkingData = new VersionedParkingData(data, version);
+        return data;
+    }
+
+    private record VersionedParkingData(List<ParkingResponse> data, DataVersion version) {}
 }
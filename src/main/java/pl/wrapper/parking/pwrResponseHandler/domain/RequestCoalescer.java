@@ -0,0 +1,60 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+class RequestCoalescer implements MeterBinder {
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    <T> Mono<T> coalesce(String key, Supplier<Mono<T>> upstreamCall) {
+        return Mono.defer(() -> {
+            boolean[] started = {false};
+            Mono<T> shared = (Mono<T>) inFlight.computeIfAbsent(key, k -> {
+                started[0] = true;
+                return upstreamCall.get().doFinally(signal -> inFlight.remove(k)).cache();
+            });
+            if (started[0]) {
+                upstreamCalls.increment();
+            } else {
+                coalescedCalls.increment();
+                log.debug("Joined in-flight Pwr api call: {}", key);
+            }
+            return shared;
+        });
+    }
+
+    long getUpstreamCallCount() {
+        return upstreamCalls.sum();
+    }
+
+    long getCoalescedCallCount() {
+        return coalescedCalls.sum();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("pwr.api.calls", upstreamCalls, LongAdder::doubleValue)
+                .description("Calls to the Pwr api, by whether they went upstream or joined an in-flight call")
+                .tag("outcome", "upstream")
+                .register(registry);
+        FunctionCounter.builder("pwr.api.calls", coalescedCalls, LongAdder::doubleValue)
+                .description("Calls to the Pwr api, by whether they went upstream or joined an in-flight call")
+                .tag("outcome", "coalesced")
+                .register(registry);
+    }
+}
@@ -0,0 +1,13 @@
+package pl.wrapper.parking.pwrResponseHandler.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/*
+ * Changes of the parking list since the version a client already has. When that version is unknown or too old, full
+ * is set and changes lists every current parking lot as ADDED, replacing whatever the client had.
+ */
+public record ParkingChanges(
+        @Schema(description = "version to pass as since in the next request", example = "m2x8k1c0-42") String version,
+        @Schema(description = "whether changes replace the client state instead of updating it") boolean full,
+        List<ParkingDelta> changes) {}
@@ -0,0 +1,25 @@
+package pl.wrapper.parking.pwrResponseHandler.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/* Change of one parking lot between two snapshots; fields holds the changed ParkingResponse fields by json name. */
+public record ParkingDelta(
+        @Schema(example = "4") int parkingId,
+        @Schema(example = "UPDATED") Change change,
+        @Schema(example = "{\"freeSpots\": 31, \"trend\": -1}") @JsonInclude(JsonInclude.Include.NON_EMPTY)
+                Map<String, Object> fields) {
+
+    public ParkingDelta {
+        fields = Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+    }
+
+    public enum Change {
+        ADDED,
+        UPDATED,
+        REMOVED
+    }
+}
@@ -0,0 +1,42 @@
+package pl.wrapper.parking.pwrResponseHandler.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+import org.springframework.lang.Nullable;
+
+/*
+ * One observation of the Pwr api, numbered in fetch order and shared by every snapshot sink, together with its changes
+ * against the previous observation. Versions handed to clients carry a per-process prefix, so a version from before a
+ * restart is never mistaken for a sequence number of this one.
+ */
+public record ParkingSnapshot(
+        long sequence, LocalDateTime fetchedAt, List<ParkingResponse> parkings, List<ParkingDelta> changes) {
+    private static final String BOOT = Long.toString(System.currentTimeMillis(), 36) + "-";
+
+    public ParkingSnapshot {
+        parkings = List.copyOf(parkings);
+        changes = List.copyOf(changes);
+    }
+
+    public boolean unchanged() {
+        return changes.isEmpty();
+    }
+
+    public String version() {
+        return versionOf(sequence);
+    }
+
+    public static String versionOf(long sequence) {
+        return BOOT + sequence;
+    }
+
+    public static OptionalLong sequenceOf(@Nullable String version) {
+        if (version == null || !version.startsWith(BOOT)) return OptionalLong.empty();
+        try {
+            return OptionalLong.of(Long.parseLong(version.substring(BOOT.length())));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+}
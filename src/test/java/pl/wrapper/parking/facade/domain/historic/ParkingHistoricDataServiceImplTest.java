@@ -21,14 +21,10 @@ import pl.wrapper.parking.facade.dto.historicData.HistoricDayData;
 import pl.wrapper.parking.facade.dto.historicData.HistoricDayParkingData;
 import pl.wrapper.parking.facade.dto.historicData.HistoricPeriodParkingData;
 import pl.wrapper.parking.facade.dto.historicData.TimestampEntry;
-import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
 
 @ExtendWith(MockitoExtension.class)
 class ParkingHistoricDataServiceImplTest {
 
-    @Mock
-    private PwrApiServerCaller pwrApiServerCaller;
-
     private final Integer intervalLength = 480;
 
     @Mock
@@ -46,7 +42,7 @@ class ParkingHistoricDataServiceImplTest {
     @InjectMocks
     @Spy
     private final ParkingHistoricDataServiceImpl parkingHistoricDataService =
-            new ParkingHistoricDataServiceImpl(pwrApiServerCaller, intervalLength);
+            new ParkingHistoricDataServiceImpl(intervalLength);
 
     @Test
     void testGetDataForDay_ValidDate_ReturnsParkingData() {
@@ -3,15 +3,21 @@ package pl.wrapper.parking.facade.domain.main;
 import static org.hamcrest.CoreMatchers.anything;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +27,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -28,11 +36,13 @@ import org.springframework.test.web.servlet.MvcResult;
 import pl.wrapper.parking.facade.ParkingService;
 import pl.wrapper.parking.infrastructure.error.ParkingError;
 import pl.wrapper.parking.infrastructure.error.Result;
+import pl.wrapper.parking.infrastructure.util.DataVersion;
 import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
 import pl.wrapper.parking.pwrResponseHandler.dto.Address;
 import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
 
 @WebMvcTest(ParkingController.class)
+@Import(ParkingJsonSnapshot.class)
 @ComponentScan({"pl.wrapper.parking.infrastructure", "pl.wrapper.parking.facade.main"})
 public class ParkingControllerTest {
     @Autowired
@@ -117,8 +127,7 @@ public class ParkingControllerTest {
 
     @Test()
     void getAllParkingsWithFreeSpots_shouldReturnListOfParking() throws Exception {
-        List<ParkingResponse> serviceResponse = List.of(parkingData.get(1), parkingData.get(2), parkingData.get(3));
-        when(parkingService.getAllWithFreeSpots(null)).thenReturn(serviceResponse);
+        when(pwrApiServerCaller.fetchParkingData()).thenReturn(parkingData);
 
         String jsonResponse = mockMvc.perform(get("/free").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -233,10 +242,44 @@ public class ParkingControllerTest {
                 .andExpect(jsonPath("$.errorMessage", anything()));
     }
 
+    @Test
+    void getParkingWithTheMostFreeSpaces_shouldRenderCompactJsonByDefault() throws Exception {
+        when(parkingService.getWithTheMostFreeSpots(null)).thenReturn(Result.success(parkingData.get(1)));
+
+        String body = mockMvc.perform(get("/free/top"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertFalse(body.contains("\n"));
+    }
+
+    @Test
+    void getParkingWithTheMostFreeSpaces_shouldRenderPrettyJsonWhenRequested() throws Exception {
+        when(parkingService.getWithTheMostFreeSpots(null)).thenReturn(Result.success(parkingData.get(1)));
+
+        String byParam = mockMvc.perform(get("/free/top").queryParam("pretty", "true"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String byAcceptHeader = mockMvc.perform(
+                        get("/free/top").header(HttpHeaders.ACCEPT, "application/json;pretty=true"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertTrue(byParam.contains("\n"));
+        assertTrue(byAcceptHeader.contains("\n"));
+        assertEquals(325, new JSONObject(byParam).getInt("freeSpots"));
+    }
+
     @Test
     void getAllWithParams_shouldReturnResultBody() throws Exception {
         ParkingResponse parkingResponse = parkingData.getFirst();
-        when(parkingService.getByParams(any(), any(), any(), any(), any())).thenReturn(List.of(parkingResponse));
+        when(pwrApiServerCaller.fetchParkingData()).thenReturn(List.of(parkingResponse));
         MvcResult result = mockMvc.perform(get("/")).andExpect(status().isOk()).andReturn();
 
         String listJson = result.getResponse().getContentAsString();
@@ -246,6 +289,72 @@ public class ParkingControllerTest {
         assertEquals(parking.getString("parkingId"), String.valueOf(parkingResponse.parkingId()));
     }
 
+    @Test
+    void getAllWithParams_shouldFallBackToServiceWhenFiltered() throws Exception {
+        ParkingResponse parkingResponse = parkingData.get(2);
+        when(parkingService.getByParams(any(), any(), any(), any(), any())).thenReturn(List.of(parkingResponse));
+
+        mockMvc.perform(get("/").queryParam("symbol", "P3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].symbol").value("P3"));
+    }
+
+    @Test
+    void getAllParkingsWithFreeSpots_shouldServeGzippedSnapshot() throws Exception {
+        when(pwrApiServerCaller.fetchParkingData()).thenReturn(parkingData);
+
+        byte[] body = mockMvc.perform(get("/free").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            JSONArray jsonArray = new JSONArray(new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(3, jsonArray.length());
+        }
+    }
+
+    @Test
+    void getAllParkingsWithFreeSpots_shouldNotGzipWhenRejectedByQualityValue() throws Exception {
+        when(pwrApiServerCaller.fetchParkingData()).thenReturn(parkingData);
+
+        mockMvc.perform(get("/free").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.length()").value(3));
+
+        mockMvc.perform(get("/free").header(HttpHeaders.ACCEPT_ENCODING, "identity, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void getParkingWithTheMostFreeSpaces_shouldReturnNotModifiedForCurrentVersion() throws Exception {
+        DataVersion version = DataVersion.changedNow();
+        when(pwrApiServerCaller.getParkingDataVersion()).thenReturn(version);
+
+        mockMvc.perform(get("/free/top").header(HttpHeaders.IF_NONE_MATCH, version.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, version.etag()));
+
+        verifyNoInteractions(parkingService);
+    }
+
+    @Test
+    void getParkingWithTheMostFreeSpaces_shouldReturnVersionHeaders() throws Exception {
+        DataVersion version = DataVersion.changedNow();
+        when(pwrApiServerCaller.getParkingDataVersion()).thenReturn(version);
+        when(parkingService.getWithTheMostFreeSpots(null)).thenReturn(Result.success(parkingData.get(1)));
+
+        mockMvc.perform(get("/free/top").header(HttpHeaders.IF_NONE_MATCH, "W/\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, version.etag()))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
     @Test
     void getById_ShouldReturnError() throws Exception {
         int incorrectId = parkingData.getLast().parkingId() + 100;
@@ -0,0 +1,111 @@
+package pl.wrapper.parking.facade.domain.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta.Change;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class ParkingLiveStreamTest {
+
+    private final ParkingLiveStream stream = new ParkingLiveStream(3600, 60, 2);
+    private List<ParkingResponse> previous = List.of();
+
+    @Test
+    void subscribe_shouldStartWithSnapshotAndPushOnlyChangedParkings() {
+        stream.onSnapshot(snapshot(1, parking(1, 10), parking(2, 20)));
+
+        StepVerifier.create(stream.subscribe(null))
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo(ParkingLiveStream.SNAPSHOT_EVENT);
+                    assertThat(event.data()).containsExactly(parking(1, 10), parking(2, 20));
+                })
+                .then(() -> stream.onSnapshot(snapshot(2, parking(1, 10), parking(2, 21))))
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo(ParkingLiveStream.CHANGES_EVENT);
+                    assertThat(event.data()).containsExactly(parking(2, 21));
+                })
+                .then(() -> stream.onSnapshot(snapshot(3, parking(1, 10), parking(2, 21))))
+                .then(() -> stream.onSnapshot(snapshot(4, parking(2, 22))))
+                .assertNext(event -> {
+                    assertThat(event.event()).isEqualTo(ParkingLiveStream.SNAPSHOT_EVENT);
+                    assertThat(event.data()).containsExactly(parking(2, 22));
+                })
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void subscribe_shouldResumeAfterLastEventId() {
+        stream.onSnapshot(snapshot(1, parking(1, 10), parking(2, 20)));
+        String firstId = firstEvent(stream.subscribe(null)).id();
+        stream.onSnapshot(snapshot(2, parking(1, 11), parking(2, 20)));
+        stream.onSnapshot(snapshot(3, parking(1, 11), parking(2, 19)));
+
+        StepVerifier.create(stream.subscribe(firstId))
+                .assertNext(event -> assertThat(event.data()).containsExactly(parking(1, 11)))
+                .assertNext(event -> assertThat(event.data()).containsExactly(parking(2, 19)))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void subscribe_shouldSendSnapshotWhenLastEventIdIsUnknownOrNoLongerReplayable() {
+        stream.onSnapshot(snapshot(1, parking(1, 10)));
+        String firstId = firstEvent(stream.subscribe(null)).id();
+        stream.onSnapshot(snapshot(2, parking(1, 11)));
+        stream.onSnapshot(snapshot(3, parking(1, 12)));
+        stream.onSnapshot(snapshot(4, parking(1, 13)));
+
+        for (String lastEventId : new String[] {firstId, "0-3", "garbage"}) {
+            ServerSentEvent<List<ParkingResponse>> event = firstEvent(stream.subscribe(lastEventId));
+            assertThat(event.event()).isEqualTo(ParkingLiveStream.SNAPSHOT_EVENT);
+            assertThat(event.data()).containsExactly(parking(1, 13));
+        }
+    }
+
+    @Test
+    void subscribe_shouldSendHeartbeatComments() {
+        StepVerifier.withVirtualTime(() -> new ParkingLiveStream(15, 60, 2).subscribe(null))
+                .thenAwait(Duration.ofSeconds(15))
+                .assertNext(event -> assertThat(event.comment()).isEqualTo("heartbeat"))
+                .thenCancel()
+                .verify();
+    }
+
+    private static ServerSentEvent<List<ParkingResponse>> firstEvent(
+            Flux<ServerSentEvent<List<ParkingResponse>>> events) {
+        return events.blockFirst(Duration.ofSeconds(5));
+    }
+
+    /* mirrors the ingest diff closely enough for the stream, which only looks at the ids and kinds of changes */
+    private ParkingSnapshot snapshot(long sequence, ParkingResponse... parkings) {
+        List<ParkingDelta> changes = new ArrayList<>();
+        for (ParkingResponse parking : parkings)
+            if (!previous.contains(parking)) changes.add(delta(parking.parkingId(), Change.UPDATED));
+        for (ParkingResponse parking : previous)
+            if (Arrays.stream(parkings).noneMatch(next -> next.parkingId() == parking.parkingId()))
+                changes.add(delta(parking.parkingId(), Change.REMOVED));
+        previous = List.of(parkings);
+        return new ParkingSnapshot(sequence, LocalDateTime.now(), previous, changes);
+    }
+
+    private static ParkingDelta delta(int parkingId, Change change) {
+        return new ParkingDelta(parkingId, change, Map.of());
+    }
+
+    private static ParkingResponse parking(int id, int freeSpots) {
+        return ParkingResponse.builder().parkingId(id).freeSpots(freeSpots).build();
+    }
+}
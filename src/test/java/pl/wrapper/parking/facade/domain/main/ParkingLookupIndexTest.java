@@ -0,0 +1,72 @@
+package pl.wrapper.parking.facade.domain.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+class ParkingLookupIndexTest {
+
+    private final List<ParkingResponse> parkings = List.of(
+            parking(1, "Parking Wroński", "WRO", true),
+            parking(2, "Parking Centrum", "C13", false),
+            parking(3, "Centrum", "C", true),
+            parking(4, "Parking Wroński", "WRO", false),
+            parking(4, "Polinka", "D20", true));
+    private final ParkingLookupIndex index = ParkingLookupIndex.build(parkings);
+
+    @Test
+    void byId_shouldReturnFirstParkingWithMatchingOpeningState() {
+        assertThat(index.byId(4, null)).contains(parkings.get(3));
+        assertThat(index.byId(4, true)).contains(parkings.get(4));
+        assertThat(index.byId(4, false)).contains(parkings.get(3));
+        assertThat(index.byId(5, null)).isEmpty();
+        assertThat(index.byId(-1, null)).isEmpty();
+    }
+
+    @Test
+    void bySymbolAndName_shouldMatchLinearScan() {
+        List<String> queries = List.of(
+                "wro", "WRO", "c13", "c", "xc13x", "d20", "D20 wro", "", "zzz", "parking centrum", "centrum polinka");
+        for (String query : queries) {
+            for (Boolean opened : new Boolean[] {null, true, false}) {
+                assertThat(index.bySymbol(query, opened))
+                        .as("symbol %s opened %s", query, opened)
+                        .isEqualTo(linearScan(parking -> query.toLowerCase()
+                                .contains(parking.symbol().toLowerCase())
+                                && (opened == null || opened == parking.isOpened())));
+                assertThat(index.byName(query, opened))
+                        .as("name %s opened %s", query, opened)
+                        .isEqualTo(linearScan(parking -> query.toLowerCase()
+                                .contains(parking.name().toLowerCase())
+                                && (opened == null || opened == parking.isOpened())));
+            }
+        }
+    }
+
+    @Test
+    void bySymbol_shouldPreferEarlierParkingWhoseSymbolIsContainedInQuery() {
+        assertThat(index.bySymbol("C13", null)).contains(parkings.get(1));
+        assertThat(index.bySymbol("xc13x", null)).contains(parkings.get(1));
+        assertThat(index.bySymbol("C", null)).contains(parkings.get(2));
+    }
+
+    private Optional<ParkingResponse> linearScan(Predicate<ParkingResponse> predicate) {
+        return parkings.stream().filter(predicate).findFirst();
+    }
+
+    private static ParkingResponse parking(int id, String name, String symbol, boolean opened) {
+        LocalTime closingHours = opened ? null : LocalTime.MIDNIGHT;
+        return ParkingResponse.builder()
+                .parkingId(id)
+                .name(name)
+                .symbol(symbol)
+                .openingHours(LocalTime.MIDNIGHT)
+                .closingHours(closingHours)
+                .build();
+    }
+}
@@ -13,9 +13,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import pl.wrapper.parking.facade.dto.main.NearbyParking;
 import pl.wrapper.parking.facade.dto.main.NominatimLocation;
 import pl.wrapper.parking.infrastructure.error.ParkingError;
 import pl.wrapper.parking.infrastructure.error.Result;
+import pl.wrapper.parking.infrastructure.nominatim.cache.GeocodingCache;
 import pl.wrapper.parking.infrastructure.nominatim.client.NominatimClient;
 import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
 import pl.wrapper.parking.pwrResponseHandler.dto.Address;
@@ -37,7 +39,10 @@ public class ParkingServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        parkingService = new ParkingServiceImpl(pwrApiServerCaller, nominatimClient);
+        parkingService = new ParkingServiceImpl(
+                pwrApiServerCaller,
+                new GeocodingCache(nominatimClient, 100, 30, 6, ""),
+                new ParkingIndexes(pwrApiServerCaller));
         parkings1 = List.of(
                 ParkingResponse.builder()
                         .parkingId(1)
@@ -132,6 +137,37 @@ public class ParkingServiceImplTest {
         verify(pwrApiServerCaller).fetchParkingData();
     }
 
+    @Test
+    void getNearestParkings_returnParkingsOrderedByDistance() {
+        String address = "test place";
+        NominatimLocation location = new NominatimLocation(-44.0, 123.0);
+
+        when(nominatimClient.search(eq(address), anyString())).thenReturn(Flux.just(location));
+        when(pwrApiServerCaller.fetchParkingData()).thenReturn(parkings1);
+
+        Result<List<NearbyParking>> result = parkingService.getNearestParkings(address, 5);
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getData())
+                .extracting(nearby -> nearby.parking().name())
+                .containsExactly("Parking 2", "Parking 1");
+        assertThat(result.getData().getFirst().distanceKm()).isLessThan(100);
+    }
+
+    @Test
+    void getParkingsWithinRadius_returnOnlyParkingsInsideRadius() {
+        String address = "test place";
+        NominatimLocation location = new NominatimLocation(37.0, -158.0);
+
+        when(nominatimClient.search(eq(address), anyString())).thenReturn(Flux.just(location));
+        when(pwrApiServerCaller.fetchParkingData()).thenReturn(parkings1);
+
+        Result<List<NearbyParking>> result = parkingService.getParkingsWithinRadius(address, 100);
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getData())
+                .extracting(nearby -> nearby.parking().name())
+                .containsExactly("Parking 1");
+    }
+
     @Test()
     void getAllParkingsWithFreeSpots_shouldReturnList() {
         when(pwrApiServerCaller.fetchParkingData()).thenReturn(parkings2);
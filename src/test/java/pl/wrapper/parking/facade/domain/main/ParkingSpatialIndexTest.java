@@ -0,0 +1,100 @@
+package pl.wrapper.parking.facade.domain.main;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import pl.wrapper.parking.facade.dto.main.NearbyParking;
+import pl.wrapper.parking.pwrResponseHandler.dto.Address;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+class ParkingSpatialIndexTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    void nearest_shouldMatchBruteForce() {
+        List<ParkingResponse> parkings = randomParkings(500);
+        ParkingSpatialIndex index = ParkingSpatialIndex.build(parkings);
+
+        for (int i = 0; i < 50; i++) {
+            double latitude = 51 + random.nextDouble() * 0.2;
+            double longitude = 17 + random.nextDouble() * 0.2;
+
+            assertThat(names(index.nearest(latitude, longitude, 7)))
+                    .containsExactlyElementsOf(
+                            names(bruteForce(parkings, latitude, longitude)).subList(0, 7));
+        }
+    }
+
+    @Test
+    void withinRadius_shouldMatchBruteForce() {
+        List<ParkingResponse> parkings = randomParkings(500);
+        ParkingSpatialIndex index = ParkingSpatialIndex.build(parkings);
+
+        for (int i = 0; i < 50; i++) {
+            double latitude = 51 + random.nextDouble() * 0.2;
+            double longitude = 17 + random.nextDouble() * 0.2;
+            double radius = random.nextDouble() * 5;
+
+            List<NearbyParking> expected = bruteForce(parkings, latitude, longitude).stream()
+                    .filter(nearby -> nearby.distanceKm() <= radius)
+                    .toList();
+            assertThat(names(index.withinRadius(latitude, longitude, radius)))
+                    .containsExactlyElementsOf(names(expected));
+        }
+    }
+
+    @Test
+    void build_shouldSkipParkingsWithoutAddress() {
+        ParkingResponse withoutAddress =
+                ParkingResponse.builder().parkingId(1).name("no address").build();
+        ParkingResponse located = ParkingResponse.builder()
+                .parkingId(2)
+                .name("located")
+                .address(new Address("street", 51.1f, 17.0f))
+                .build();
+        ParkingSpatialIndex index = ParkingSpatialIndex.build(List.of(withoutAddress, located));
+
+        assertThat(names(index.nearest(51.1, 17.0, 5))).containsExactly("located");
+    }
+
+    @Test
+    void nearest_shouldReturnEmptyListForEmptyIndex() {
+        assertThat(ParkingSpatialIndex.build(List.of()).nearest(51.1, 17.0, 3)).isEmpty();
+    }
+
+    private List<ParkingResponse> randomParkings(int count) {
+        List<ParkingResponse> parkings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            float latitude = 51 + random.nextFloat() * 0.2f;
+            float longitude = 17 + random.nextFloat() * 0.2f;
+            parkings.add(ParkingResponse.builder()
+                    .parkingId(i)
+                    .name("Parking " + i)
+                    .address(new Address("street " + i, latitude, longitude))
+                    .build());
+        }
+        return parkings;
+    }
+
+    private static List<NearbyParking> bruteForce(List<ParkingResponse> parkings, double latitude, double longitude) {
+        return parkings.stream()
+                .map(parking -> new NearbyParking(
+                        parking,
+                        ParkingSpatialIndex.haversineDistance(
+                                latitude,
+                                longitude,
+                                parking.address().geoLatitude(),
+                                parking.address().geoLongitude())))
+                .sorted(Comparator.comparingDouble(NearbyParking::distanceKm))
+                .toList();
+    }
+
+    private static List<String> names(List<NearbyParking> nearby) {
+        return nearby.stream().map(parking -> parking.parking().name()).toList();
+    }
+}
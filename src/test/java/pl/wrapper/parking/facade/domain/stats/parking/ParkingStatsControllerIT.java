@@ -22,8 +22,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import pl.wrapper.parking.infrastructure.inMemory.ParkingDataRepository;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ArrayWeeklyHistogram;
 import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
 import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.WeeklyHistogram;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
@@ -133,6 +135,32 @@ public class ParkingStatsControllerIT {
         verify(dataRepository, never()).values();
     }
 
+    @Test
+    void getDailyParkingStats_withDecayedAveraging_returnDecayedStats() throws Exception {
+        WeeklyHistogram histogram = new ArrayWeeklyHistogram(10);
+        for (double availability : new double[] {0.2, 0.2, 0.2, 0.8}) {
+            histogram.record(MONDAY, LocalTime.of(10, 0), availability);
+            histogram.decay(MONDAY, LocalTime.of(10, 0), availability, 0.5);
+        }
+        when(dataRepository.fetchAllKeys()).thenReturn(Set.of(1));
+        when(dataRepository.get(1)).thenReturn(ParkingData.withHistogram(1, 100, histogram));
+
+        mockMvc.perform(get("/stats/daily")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .queryParam("day_of_week", "MONDAY")
+                        .queryParam("ids", "1")
+                        .queryParam("averaging", "DECAYED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].stats.averageAvailability", is(0.5)));
+    }
+
+    @Test
+    void getDailyParkingStats_withUnknownAveraging_returnBadRequest() throws Exception {
+        mockMvc.perform(get("/stats/daily").queryParam("day_of_week", "MONDAY").queryParam("averaging", "median"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", anything()));
+    }
+
     @Test
     void getDailyParkingStats_withMissingDayOfWeek_returnBadRequest() throws Exception {
         mockMvc.perform(get("/stats/daily"))
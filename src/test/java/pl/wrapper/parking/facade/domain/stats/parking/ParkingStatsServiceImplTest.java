@@ -13,7 +13,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import pl.wrapper.parking.facade.dto.stats.parking.AveragingMode;
 import pl.wrapper.parking.facade.dto.stats.parking.ParkingStatsResponse;
+import pl.wrapper.parking.facade.dto.stats.parking.basis.AvailabilityPercentiles;
 import pl.wrapper.parking.facade.dto.stats.parking.basis.OccupancyInfo;
 import pl.wrapper.parking.facade.dto.stats.parking.basis.ParkingInfo;
 import pl.wrapper.parking.facade.dto.stats.parking.basis.ParkingStats;
@@ -22,8 +24,10 @@ import pl.wrapper.parking.facade.dto.stats.parking.daily.DailyParkingStatsRespon
 import pl.wrapper.parking.facade.dto.stats.parking.weekly.CollectiveWeeklyParkingStats;
 import pl.wrapper.parking.facade.dto.stats.parking.weekly.WeeklyParkingStatsResponse;
 import pl.wrapper.parking.infrastructure.inMemory.ParkingDataRepository;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ArrayWeeklyHistogram;
 import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
 import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.WeeklyHistogram;
 
 @ExtendWith(MockitoExtension.class)
 public class ParkingStatsServiceImplTest {
@@ -228,4 +232,63 @@ public class ParkingStatsServiceImplTest {
                         entry(MONDAY, Map.of(LocalTime.of(10, 0), new ParkingStats(0.6, 120))),
                         entry(WEDNESDAY, Map.of(LocalTime.of(14, 0), new ParkingStats(0.9, 180))));
     }
+
+    @Test
+    void getWeeklyParkingStats_withHistogramBackedData_returnAvailabilityPercentiles() {
+        WeeklyHistogram histogram = new ArrayWeeklyHistogram(10);
+        for (double availability : new double[] {0.2, 0.4, 0.6, 0.8})
+            histogram.record(MONDAY, LocalTime.of(10, 0), availability);
+        histogram.record(TUESDAY, LocalTime.of(10, 0), 0.5);
+        when(dataRepository.values()).thenReturn(List.of(ParkingData.withHistogram(1, 100, histogram)));
+
+        List<WeeklyParkingStatsResponse> weekly = parkingStatsService.getWeeklyParkingStats(null);
+        List<CollectiveDailyParkingStats> collective =
+                parkingStatsService.getCollectiveDailyParkingStats(null, TUESDAY);
+
+        AvailabilityPercentiles percentiles = weekly.getFirst().stats().availabilityPercentiles();
+        assertThat(percentiles).isNotNull();
+        assertThat(percentiles.p50()).isCloseTo(0.5, within(0.025));
+        assertThat(percentiles.p10()).isLessThan(percentiles.p50());
+        assertThat(percentiles.p90()).isGreaterThan(percentiles.p50());
+        assertThat(collective.getFirst().statsMap().get(LocalTime.of(10, 0)).availabilityPercentiles())
+                .extracting(AvailabilityPercentiles::p10, AvailabilityPercentiles::p90)
+                .allSatisfy(value -> assertThat((double) value).isCloseTo(0.5, within(0.025)));
+    }
+
+    @Test
+    void getCollectiveDailyParkingStats_withMapBackedData_returnNoPercentiles() {
+        when(dataRepository.values()).thenReturn(parkingData);
+
+        List<CollectiveDailyParkingStats> result = parkingStatsService.getCollectiveDailyParkingStats(null, MONDAY);
+
+        assertThat(result.getFirst().statsMap().values())
+                .extracting(ParkingStats::availabilityPercentiles)
+                .containsOnlyNulls();
+    }
+
+    @Test
+    void getWeeklyParkingStats_withDecayedMode_returnDecayedAverages() {
+        WeeklyHistogram histogram = new ArrayWeeklyHistogram(10);
+        for (double availability : new double[] {0.2, 0.2, 0.2, 0.8}) {
+            histogram.record(MONDAY, LocalTime.of(10, 0), availability);
+            histogram.decay(MONDAY, LocalTime.of(10, 0), availability, 0.5);
+        }
+        when(dataRepository.values()).thenReturn(List.of(ParkingData.withHistogram(1, 100, histogram)));
+
+        ParkingStats cumulative = parkingStatsService
+                .getWeeklyParkingStats(null, AveragingMode.CUMULATIVE)
+                .getFirst()
+                .stats();
+        ParkingStats decayed = parkingStatsService
+                .getWeeklyParkingStats(null, AveragingMode.DECAYED)
+                .getFirst()
+                .stats();
+
+        assertThat(cumulative)
+                .extracting(ParkingStats::averageAvailability, ParkingStats::averageFreeSpots)
+                .containsExactly(0.35, 35);
+        assertThat(decayed)
+                .extracting(ParkingStats::averageAvailability, ParkingStats::averageFreeSpots)
+                .containsExactly(0.5, 50);
+    }
 }
@@ -18,7 +18,9 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import pl.wrapper.parking.facade.ParkingRequestStatsService;
+import pl.wrapper.parking.facade.dto.stats.request.EndpointLatencyStats;
 import pl.wrapper.parking.facade.dto.stats.request.EndpointStats;
+import pl.wrapper.parking.facade.dto.stats.request.LatencyStats;
 
 @WebMvcTest(ParkingRequestStatsController.class)
 @ComponentScan({
@@ -133,4 +135,18 @@ public class ParkingRequestStatsControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(new ObjectMapper().writeValueAsString(dailyStats)));
     }
+
+    @Test
+    void getLatencyStats_shouldReturnData() throws Exception {
+        LatencyStats total = new LatencyStats(120, 1.2, 3.5, 12.0, 40.1);
+        Map<String, EndpointLatencyStats> latencyStats = Map.of(
+                "/parkings/free",
+                new EndpointLatencyStats(total, List.of(Map.entry("08:00 - 08:30", total))));
+
+        when(parkingRequestStatsService.getLatencyStats()).thenReturn(latencyStats);
+
+        mockMvc.perform(get("/stats/requests/latency").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(new ObjectMapper().writeValueAsString(latencyStats)));
+    }
 }
@@ -3,6 +3,7 @@ package pl.wrapper.parking.facade.domain.stats.request;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -12,9 +13,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import pl.wrapper.parking.facade.dto.stats.request.EndpointLatencyStats;
 import pl.wrapper.parking.facade.dto.stats.request.EndpointStats;
 import pl.wrapper.parking.infrastructure.inMemory.ParkingRequestRepository;
+import pl.wrapper.parking.infrastructure.inMemory.RequestLatencyRepository;
 import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointLatency;
 import pl.wrapper.parking.infrastructure.inMemory.dto.request.TimeframeStatistic;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +27,9 @@ public class ParkingRequestStatsServiceImplTest {
     @Mock
     private ParkingRequestRepository requestRepository;
 
+    @Mock
+    private RequestLatencyRepository latencyRepository;
+
     private ParkingRequestStatsServiceImpl requestStatsService;
 
     private Set<Map.Entry<String, EndpointData>> dataEntries;
@@ -44,7 +51,7 @@ public class ParkingRequestStatsServiceImplTest {
 
         when(requestRepository.getTotalEndpoint()).thenReturn(totalEndpoint);
 
-        requestStatsService = new ParkingRequestStatsServiceImpl(requestRepository);
+        requestStatsService = new ParkingRequestStatsServiceImpl(requestRepository, latencyRepository);
 
         dataEntries = Set.of(
                 Map.entry(
@@ -202,4 +209,31 @@ public class ParkingRequestStatsServiceImplTest {
 
         assertThat(result).isEmpty();
     }
+
+    @Test
+    void getLatencyStats_shouldReturnPercentilesForRecordedTimeframes() {
+        EndpointLatency latency = new EndpointLatency(30);
+        for (int i = 1; i <= 100; i++) latency.record(LocalTime.of(0, 40), i * 10L);
+        latency.record(LocalTime.of(1, 5), 20_000);
+        when(latencyRepository.fetchAll()).thenReturn(Map.of("parkings", latency));
+
+        Map<String, EndpointLatencyStats> result = requestStatsService.getLatencyStats();
+
+        EndpointLatencyStats stats = result.get("parkings");
+        assertThat(stats.total().requests()).isEqualTo(101);
+        assertThat(stats.total().p50Millis()).isCloseTo(0.5, within(0.02));
+        assertThat(stats.total().p999Millis()).isCloseTo(20.0, within(0.6));
+        assertThat(stats.timeframes())
+                .extracting(Map.Entry::getKey)
+                .containsExactly("00:30 - 01:00", "01:00 - 01:30");
+        assertThat(stats.timeframes().get(0).getValue().p90Millis()).isCloseTo(0.9, within(0.03));
+        assertThat(stats.timeframes().get(1).getValue().requests()).isEqualTo(1);
+    }
+
+    @Test
+    void getLatencyStats_shouldReturnEmptyData() {
+        when(latencyRepository.fetchAll()).thenReturn(Collections.emptyMap());
+
+        assertThat(requestStatsService.getLatencyStats()).isEmpty();
+    }
 }
@@ -1,14 +1,24 @@
 package pl.wrapper.parking.infrastructure.inMemory;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import pl.wrapper.parking.infrastructure.inMemory.codec.JavaSerializationCodec;
 
 class InMemoryRepositoryTest {
 
@@ -23,10 +33,19 @@ class InMemoryRepositoryTest {
             super(filePath, map, defaultValue);
         }
 
+        public InMemoryRepositoryTestImpl(
+                String filePath, Map<Integer, String> map, String defaultValue, Executor snapshotWriter) {
+            super(filePath, map, defaultValue, new JavaSerializationCodec<>(), snapshotWriter);
+        }
+
         public void testSerialize() {
             periodicSerialize();
         }
 
+        public void testShutdown() {
+            selfSerialize();
+        }
+
         public void testDeserialize() {
             init();
         }
@@ -46,8 +65,7 @@ class InMemoryRepositoryTest {
     @SuppressWarnings("ResultOfMethodCallIgnored")
     @AfterEach
     void tearDown() {
-        File file = new File(path);
-        file.delete();
+        for (String suffix : new String[] {"", ".1", ".2", ".tmp"}) new File(path + suffix).delete();
     }
 
     @Test
@@ -72,4 +90,39 @@ class InMemoryRepositoryTest {
         inMemoryRepository.testDeserialize();
         assertEquals(inMemoryRepository.get(id), value);
     }
+
+    @Test
+    void shouldFallBackToPreviousGenerationWhenNewestSnapshotIsTruncated() throws IOException {
+        inMemoryRepository.add(id, value);
+        inMemoryRepository.testSerialize();
+        inMemoryRepository.add(id + 1, "newer");
+        inMemoryRepository.testSerialize();
+
+        byte[] newest = Files.readAllBytes(Path.of(path));
+        Files.write(Path.of(path), Arrays.copyOf(newest, newest.length / 2));
+        inMemoryRepository.deleteData();
+        inMemoryRepository.testDeserialize();
+
+        assertEquals(inMemoryRepository.get(id), value);
+        assertNull(inMemoryRepository.get(id + 1));
+        assertFalse(new File(path + ".tmp").exists());
+    }
+
+    @Test
+    void shouldNotOverwriteShutdownSnapshotWithOlderQueuedOne() {
+        List<Runnable> queued = new ArrayList<>();
+        InMemoryRepositoryTestImpl repository =
+                new InMemoryRepositoryTestImpl(path, new HashMap<>(), null, queued::add);
+        repository.add(id, value);
+        repository.testSerialize();
+        repository.add(id + 1, "newer");
+
+        repository.testShutdown();
+        queued.forEach(Runnable::run);
+        repository.deleteData();
+        repository.testDeserialize();
+
+        assertEquals(repository.get(id + 1), "newer");
+        assertFalse(new File(path + ".1").exists());
+    }
 }
@@ -0,0 +1,76 @@
+package pl.wrapper.parking.infrastructure.inMemory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
+
+class ParkingDataJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void replay_shouldReturnAppendedEntriesInOrder() throws IOException {
+        String snapshotPath = directory.resolve("data").toString();
+        ParkingDataJournal journal = new ParkingDataJournal(snapshotPath);
+        List<ParkingDataJournal.Entry> first = List.of(entry(1, 1, 0.5), entry(2, 1, 0.25));
+        List<ParkingDataJournal.Entry> second = List.of(entry(1, 2, 0.75));
+
+        journal.append(first);
+        journal.append(second);
+
+        assertThat(replay(new ParkingDataJournal(snapshotPath)))
+                .containsExactly(first.get(0), first.get(1), second.get(0));
+    }
+
+    @Test
+    void rotate_shouldDeleteClosedSegmentsOnlyAfterCommit() throws IOException {
+        String snapshotPath = directory.resolve("data").toString();
+        ParkingDataJournal journal = new ParkingDataJournal(snapshotPath);
+        journal.append(List.of(entry(1, 1, 0.5)));
+
+        Runnable commit = journal.rotate();
+        journal.append(List.of(entry(1, 2, 0.75)));
+        assertThat(replay(new ParkingDataJournal(snapshotPath))).hasSize(2);
+
+        commit.run();
+        assertThat(replay(new ParkingDataJournal(snapshotPath))).containsExactly(entry(1, 2, 0.75));
+    }
+
+    @Test
+    void replay_shouldStopAtTornEntry() throws IOException {
+        String snapshotPath = directory.resolve("data").toString();
+        new ParkingDataJournal(snapshotPath).append(List.of(entry(1, 1, 0.5), entry(2, 1, 0.25)));
+
+        Path segment = directory.resolve("data.journal.1");
+        byte[] written = Files.readAllBytes(segment);
+        Files.write(segment, Arrays.copyOf(written, written.length - 3));
+
+        assertThat(replay(new ParkingDataJournal(snapshotPath))).containsExactly(entry(1, 1, 0.5));
+    }
+
+    private static List<ParkingDataJournal.Entry> replay(ParkingDataJournal journal) {
+        List<ParkingDataJournal.Entry> replayed = new ArrayList<>();
+        journal.replay(replayed::add);
+        return replayed;
+    }
+
+    private static ParkingDataJournal.Entry entry(int parkingId, int sampleCount, double averageAvailability) {
+        return new ParkingDataJournal.Entry(
+                parkingId,
+                100,
+                DayOfWeek.MONDAY,
+                LocalTime.of(8, 10),
+                new AvailabilityData(sampleCount, averageAvailability));
+    }
+}
@@ -0,0 +1,121 @@
+package pl.wrapper.parking.infrastructure.inMemory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointDataFactory;
+
+class ParkingRequestRepositoryTest {
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 20_000;
+
+    @TempDir
+    private Path directory;
+
+    private final EndpointDataFactory endpointDataFactory = new EndpointDataFactory() {
+        @Override
+        public EndpointData create() {
+            return new EndpointData(30);
+        }
+    };
+
+    @Test
+    void updateRequestEndpointData_shouldNotLoseConcurrentUpdates() throws InterruptedException {
+        ParkingRequestRepository repository = new ParkingRequestRepository(
+                directory.resolve("requests").toString(), endpointDataFactory, Runnable::run);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String endpoint = "/parkings/" + (t % 2);
+            Thread thread = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++)
+                    repository.updateRequestEndpointData(endpoint, i % 4 != 0, LocalTime.of(10, 5));
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        Map<String, EndpointData> stats = repository.fetchAllEntries().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        long perEndpoint = (long) THREADS / 2 * REQUESTS_PER_THREAD;
+        assertThat(stats.get("/parkings/0").getRequestCount()).isEqualTo(perEndpoint);
+        assertThat(stats.get("/parkings/1").getSuccessCount()).isEqualTo(perEndpoint * 3 / 4);
+        assertThat(stats.get("total").getRequestCount()).isEqualTo(2 * perEndpoint);
+        assertThat(stats.get("total").getTimeframeStatistics()[20].getTotalNumberOfRequests())
+                .isEqualTo((int) (2 * perEndpoint));
+    }
+
+    @Test
+    void fetchAllEntries_shouldReturnSnapshotUnaffectedByLaterRequests() {
+        ParkingRequestRepository repository = new ParkingRequestRepository(
+                directory.resolve("requests").toString(), endpointDataFactory, Runnable::run);
+        repository.updateRequestEndpointData("/parkings", true, LocalTime.NOON);
+
+        EndpointData snapshot = repository.fetchAllEntries().stream()
+                .filter(entry -> entry.getKey().equals("/parkings"))
+                .findFirst()
+                .orElseThrow()
+                .getValue();
+        repository.updateRequestEndpointData("/parkings", false, LocalTime.NOON);
+
+        assertThat(snapshot.getRequestCount()).isEqualTo(1);
+        assertThat(snapshot.getSuccessRate()).isEqualTo(100.0);
+        assertThat(repository.get("/parkings").getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void foldEndpoints_shouldFoldRawUrisOfOlderSnapshotIntoOther() throws IOException {
+        Path snapshot = directory.resolve("requests");
+        try (InputStream in = getClass().getResourceAsStream("/snapshots/parking-requests-baseline.ser")) {
+            Files.copy(in, snapshot);
+        }
+        ParkingRequestRepository repository =
+                new ParkingRequestRepository(snapshot.toString(), endpointDataFactory, Runnable::run);
+        repository.init();
+
+        repository.foldEndpoints(Set.of("/free")::contains, 200);
+
+        assertThat(repository.fetchAllKeys()).containsExactlyInAnyOrder("total", "other");
+        EndpointData other = repository.get("other");
+        assertThat(other.getRequestCount()).isEqualTo(5);
+        assertThat(other.getSuccessCount()).isEqualTo(4);
+        assertThat(repository.getTotalEndpoint().getRequestCount()).isEqualTo(5);
+    }
+
+    @Test
+    void foldEndpoints_shouldFoldKnownEndpointsBeyondCapIntoOther() {
+        ParkingRequestRepository repository = new ParkingRequestRepository(
+                directory.resolve("requests").toString(), endpointDataFactory, Runnable::run);
+        for (String endpoint : new String[] {"/a", "/b", "/c"})
+            repository.updateRequestEndpointData(endpoint, true, LocalTime.NOON);
+
+        repository.foldEndpoints(endpoint -> true, 3);
+
+        assertThat(repository.fetchAllKeys()).hasSize(4).contains("total", "other");
+        assertThat(repository.get("other").getRequestCount()).isEqualTo(1);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingData;
+
+/*
+ * Compares the binary ParkingDataCodec with the previous java serialization snapshot on a full week of 10 minute
+ * slots. Run main() from the IDE (test classpath); it prints both snapshot sizes before the measurements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotCodecBenchmark {
+
+    private final SnapshotCodec<Integer, ParkingData> binaryCodec = new ParkingDataCodec();
+    private final SnapshotCodec<Integer, ParkingData> javaCodec = new JavaSerializationCodec<>();
+
+    private Map<Integer, ParkingData> data;
+    private byte[] binarySnapshot;
+    private byte[] javaSnapshot;
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        SnapshotCodecBenchmark sizes = new SnapshotCodecBenchmark();
+        sizes.setUp();
+        System.out.printf(
+                "Snapshot size: binary %d bytes, java serialization %d bytes%n",
+                sizes.binarySnapshot.length, sizes.javaSnapshot.length);
+
+        new Runner(new OptionsBuilder()
+                        .include(SnapshotCodecBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        data = SnapshotCodecTest.parkingData();
+        binarySnapshot = write(binaryCodec);
+        javaSnapshot = write(javaCodec);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() throws IOException {
+        return write(binaryCodec);
+    }
+
+    @Benchmark
+    public byte[] writeJavaSerialization() throws IOException {
+        return write(javaCodec);
+    }
+
+    @Benchmark
+    public Map<Integer, ParkingData> readBinary() throws IOException {
+        return binaryCodec.read(new ByteArrayInputStream(binarySnapshot));
+    }
+
+    @Benchmark
+    public Map<Integer, ParkingData> readJavaSerialization() throws IOException {
+        return javaCodec.read(new ByteArrayInputStream(javaSnapshot));
+    }
+
+    private byte[] write(SnapshotCodec<Integer, ParkingData> codec) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(data, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,146 @@
+package pl.wrapper.parking.infrastructure.inMemory.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ArrayWeeklyHistogram;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.WeeklyHistogram;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.TimeframeStatistic;
+
+class SnapshotCodecTest {
+
+    @Test
+    void parkingDataCodec_shouldRoundTrip() throws IOException {
+        Map<Integer, ParkingData> data = parkingData();
+
+        Map<Integer, ParkingData> read = roundTrip(new ParkingDataCodec(), data);
+
+        assertThat(read).isEqualTo(data);
+        read.get(1).freeSpotsHistory().get(DayOfWeek.MONDAY).put(LocalTime.NOON, new AvailabilityData(1, 0.5));
+        assertThat(read.get(1).freeSpotsHistory().get(DayOfWeek.MONDAY)).containsKey(LocalTime.NOON);
+    }
+
+    @Test
+    void parkingDataCodec_shouldRoundTripHistogramWithSketchesAndDecay() throws IOException {
+        WeeklyHistogram histogram = new ArrayWeeklyHistogram(10);
+        histogram.record(DayOfWeek.MONDAY, LocalTime.of(8, 0), 0.2);
+        histogram.record(DayOfWeek.MONDAY, LocalTime.of(8, 0), 0.6);
+        histogram.record(DayOfWeek.SUNDAY, LocalTime.of(23, 50), 1.0);
+        histogram.decay(DayOfWeek.SUNDAY, LocalTime.of(23, 50), 1.0, 0.5);
+        ParkingData parkingData = ParkingData.withHistogram(4, 120, histogram);
+
+        ParkingData read = roundTrip(new ParkingDataCodec(), Map.of(4, parkingData)).get(4);
+
+        assertThat(read).isEqualTo(parkingData);
+        assertThat(read.histogram()).isNotNull();
+        assertThat(read.histogram().sketch(DayOfWeek.MONDAY, LocalTime.of(8, 0)))
+                .isEqualTo(histogram.sketch(DayOfWeek.MONDAY, LocalTime.of(8, 0)));
+        assertThat(read.histogram().sketch(DayOfWeek.SUNDAY, LocalTime.of(23, 50)).totalCount())
+                .isEqualTo(1);
+        assertThat(read.histogram().decayedAvailability(DayOfWeek.SUNDAY, LocalTime.of(23, 50)))
+                .isEqualTo(1.0);
+        assertThat(read.histogram().decayedAvailability(DayOfWeek.MONDAY, LocalTime.of(8, 0)))
+                .isNaN();
+    }
+
+    @Test
+    void endpointDataCodec_shouldRoundTrip() throws IOException {
+        EndpointData endpointData = new EndpointData(15);
+        endpointData.registerRequest(true, LocalTime.of(10, 7));
+        endpointData.registerRequest(false, LocalTime.of(10, 8));
+        endpointData.recalculateAverageForPreviousTimeframe(LocalTime.of(10, 15));
+
+        EndpointData read = roundTrip(new EndpointDataCodec(), Map.of("/parkings/free", endpointData))
+                .get("/parkings/free");
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(endpointData);
+    }
+
+    @Test
+    void binaryCodec_shouldMigrateLegacyJavaSerializationSnapshot() throws IOException {
+        Map<Integer, ParkingData> data = parkingData();
+        ByteArrayOutputStream legacy = new ByteArrayOutputStream();
+        new JavaSerializationCodec<Integer, ParkingData>().write(data, legacy);
+
+        Map<Integer, ParkingData> read = new ParkingDataCodec().read(new ByteArrayInputStream(legacy.toByteArray()));
+
+        assertThat(read).isEqualTo(data);
+    }
+
+    /*
+     * Written with java serialization by EndpointData and TimeframeStatistic as they were before LongAdder counters:
+     * 3 requests to /parkingiAPI/free at 8:10 with the 8:00 average recalculated, a failed one at 8:40 and
+     * one to /parkingiAPI/chart/1 at 9:00, in 30 minute timeframes.
+     */
+    @Test
+    void endpointDataCodec_shouldMigrateSnapshotOfPreviousEndpointDataClass() throws IOException {
+        Map<String, EndpointData> read;
+        try (InputStream in = getClass().getResourceAsStream("/snapshots/parking-requests-baseline.ser")) {
+            read = new EndpointDataCodec().read(in);
+        }
+
+        assertThat(read).containsOnlyKeys("total", "/parkingiAPI/free", "/parkingiAPI/chart/1");
+        EndpointData free = read.get("/parkingiAPI/free");
+        assertThat(free.getSuccessCount()).isEqualTo(3);
+        assertThat(free.getRequestCount()).isEqualTo(4);
+        assertThat(free.getTimeframeLength()).isEqualTo(30);
+        assertThat(free.getTimeframeStatistics()).hasSize(48);
+        TimeframeStatistic recalculated = free.getTimeframeStatistics()[16];
+        assertThat(recalculated.getAverageNumberOfRequests()).isEqualTo(3.0);
+        assertThat(recalculated.getNumberOfAverageCalculations()).isEqualTo(1);
+        assertThat(recalculated.getTotalNumberOfRequests()).isZero();
+        assertThat(free.getTimeframeStatistics()[17].getTotalNumberOfRequests()).isEqualTo(1);
+        assertThat(read.get("total").getRequestCount()).isEqualTo(5);
+
+        free.registerRequest(true, LocalTime.of(8, 45));
+        assertThat(free.getTimeframeStatistics()[17].getTotalNumberOfRequests()).isEqualTo(2);
+    }
+
+    @Test
+    void binaryCodec_shouldRejectNewerSchemaVersion() {
+        byte[] newer = {0x50, 0x57, 0x42, 0x53, 0x7F, 0x00};
+
+        assertThrows(IOException.class, () -> new ParkingDataCodec().read(new ByteArrayInputStream(newer)));
+    }
+
+    private static <K, V> Map<K, V> roundTrip(SnapshotCodec<K, V> codec, Map<K, V> data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(data, out);
+        return codec.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    static Map<Integer, ParkingData> parkingData() {
+        Map<Integer, ParkingData> data = new HashMap<>();
+        for (int parkingId = 1; parkingId <= 3; parkingId++) {
+            Map<DayOfWeek, Map<LocalTime, AvailabilityData>> history = new HashMap<>();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                Map<LocalTime, AvailabilityData> slots = new HashMap<>();
+                for (int minute = 0; minute < 24 * 60; minute += 10) {
+                    AvailabilityData availability = new AvailabilityData(minute % 7, minute / 1440.0);
+                    slots.put(LocalTime.of(minute / 60, minute % 60), availability);
+                }
+                history.put(day, slots);
+            }
+            data.put(
+                    parkingId,
+                    ParkingData.builder()
+                            .parkingId(parkingId)
+                            .totalSpots(100 * parkingId)
+                            .freeSpotsHistory(history)
+                            .build());
+        }
+        return data;
+    }
+}
@@ -0,0 +1,55 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.parking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class AvailabilitySketchTest {
+
+    @Test
+    void quantile_shouldStayWithinOneBinOfExactQuantile() {
+        Random random = new Random(5);
+        double[] samples = new double[10_000];
+        AvailabilitySketch sketch = new AvailabilitySketch();
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = Math.min(1.0, Math.abs(random.nextGaussian() * 0.2 + 0.6));
+            sketch.add(AvailabilitySketch.binOf(samples[i]), 1);
+        }
+        Arrays.sort(samples);
+
+        for (double fraction : new double[] {0.1, 0.5, 0.9})
+            assertThat(sketch.quantile(fraction))
+                    .isCloseTo(samples[(int) (fraction * samples.length)], within(1.0 / AvailabilitySketch.BINS));
+    }
+
+    @Test
+    void merge_shouldAddBinCounts() {
+        AvailabilitySketch first = new AvailabilitySketch();
+        AvailabilitySketch second = new AvailabilitySketch();
+        first.add(AvailabilitySketch.binOf(0.1), 2);
+        second.add(AvailabilitySketch.binOf(0.1), 1);
+        second.add(AvailabilitySketch.binOf(0.9), 3);
+
+        first.merge(second);
+
+        assertThat(first.totalCount()).isEqualTo(6);
+        assertThat(first.count(AvailabilitySketch.binOf(0.1))).isEqualTo(3);
+        assertThat(first.count(AvailabilitySketch.binOf(0.9))).isEqualTo(3);
+    }
+
+    @Test
+    void binOf_shouldClampOutOfRangeAvailability() {
+        assertThat(AvailabilitySketch.binOf(-0.5)).isZero();
+        assertThat(AvailabilitySketch.binOf(Double.NaN)).isZero();
+        assertThat(AvailabilitySketch.binOf(1.0)).isEqualTo(AvailabilitySketch.BINS - 1);
+        assertThat(AvailabilitySketch.binOf(3.0)).isEqualTo(AvailabilitySketch.BINS - 1);
+    }
+
+    @Test
+    void quantile_shouldReturnNaNForEmptySketch() {
+        assertThat(new AvailabilitySketch().quantile(0.5)).isNaN();
+    }
+}
@@ -0,0 +1,110 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.parking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ParkingAggregateTest {
+
+    private final Random random = new Random(11);
+
+    @Test
+    void of_shouldMatchFullScanForMapAndHistogramHistories() {
+        for (int i = 0; i < 20; i++) {
+            Map<DayOfWeek, Map<LocalTime, AvailabilityData>> history = randomHistory();
+            WeeklyHistogram histogram = new ArrayWeeklyHistogram(10);
+            histogram.putAll(history);
+
+            for (ParkingData parkingData :
+                    List.of(new ParkingData(1, 100, history), ParkingData.withHistogram(1, 100, histogram))) {
+                ParkingAggregate aggregate = ParkingAggregate.of(parkingData);
+
+                assertThat(aggregate.week()).isEqualTo(fullScan(parkingData.freeSpotsHistory(), null));
+                for (DayOfWeek day : DayOfWeek.values())
+                    assertThat(aggregate.day(day)).isEqualTo(fullScan(parkingData.freeSpotsHistory(), day));
+            }
+        }
+    }
+
+    @Test
+    void of_shouldReturnEmptyAggregatesForEmptyHistory() {
+        ParkingAggregate aggregate = ParkingAggregate.of(new ParkingData(1, 100, Map.of()));
+
+        assertThat(aggregate.week()).isEqualTo(SlotAggregate.EMPTY);
+        assertThat(aggregate.day(DayOfWeek.MONDAY)).isEqualTo(SlotAggregate.EMPTY);
+    }
+
+    @Test
+    void of_shouldMergeSketchesOfRecordedSlots() {
+        WeeklyHistogram histogram = new ArrayWeeklyHistogram(10);
+        histogram.record(DayOfWeek.MONDAY, LocalTime.of(8, 0), 0.1);
+        histogram.record(DayOfWeek.MONDAY, LocalTime.of(8, 0), 0.3);
+        histogram.record(DayOfWeek.MONDAY, LocalTime.of(9, 0), 0.9);
+        histogram.record(DayOfWeek.FRIDAY, LocalTime.of(8, 0), 0.5);
+
+        ParkingAggregate aggregate = ParkingAggregate.of(ParkingData.withHistogram(1, 100, histogram));
+
+        assertThat(aggregate.week().distribution().totalCount()).isEqualTo(4);
+        assertThat(aggregate.day(DayOfWeek.MONDAY).distribution().totalCount()).isEqualTo(3);
+        assertThat(aggregate.day(DayOfWeek.MONDAY).distribution().count(AvailabilitySketch.binOf(0.9)))
+                .isEqualTo(1);
+        assertThat(aggregate.day(DayOfWeek.SUNDAY).distribution()).isNull();
+    }
+
+    private Map<DayOfWeek, Map<LocalTime, AvailabilityData>> randomHistory() {
+        Map<DayOfWeek, Map<LocalTime, AvailabilityData>> history = new HashMap<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (random.nextInt(4) == 0) continue;
+            Map<LocalTime, AvailabilityData> slots = new HashMap<>();
+            for (int slot = 0; slot < 144; slot++) {
+                if (random.nextInt(3) == 0) continue;
+                double availability = random.nextInt(5) == 0 ? 0.5 : random.nextDouble();
+                slots.put(LocalTime.of(slot / 6, slot % 6 * 10), new AvailabilityData(1, availability));
+            }
+            history.put(day, slots);
+        }
+        return history;
+    }
+
+    /* The scan ParkingStatsServiceImpl used to run on every request. */
+    private static SlotAggregate fullScan(Map<DayOfWeek, Map<LocalTime, AvailabilityData>> history, DayOfWeek only) {
+        List<Double> availabilities = new ArrayList<>();
+        double highest = Double.NEGATIVE_INFINITY;
+        double lowest = Double.POSITIVE_INFINITY;
+        DayOfWeek highestDay = null;
+        DayOfWeek lowestDay = null;
+        LocalTime highestAt = null;
+        LocalTime lowestAt = null;
+        for (Map.Entry<DayOfWeek, Map<LocalTime, AvailabilityData>> dailyEntry : history.entrySet()) {
+            if (only != null && dailyEntry.getKey() != only) continue;
+            for (Map.Entry<LocalTime, AvailabilityData> timeEntry :
+                    dailyEntry.getValue().entrySet()) {
+                double availability = timeEntry.getValue().averageAvailability();
+                availabilities.add(availability);
+                if (availability > highest) {
+                    highest = availability;
+                    highestDay = dailyEntry.getKey();
+                    highestAt = timeEntry.getKey();
+                }
+                if (availability < lowest) {
+                    lowest = availability;
+                    lowestDay = dailyEntry.getKey();
+                    lowestAt = timeEntry.getKey();
+                }
+            }
+        }
+        if (availabilities.isEmpty()) return SlotAggregate.EMPTY;
+        double average = availabilities.stream()
+                .mapToDouble(Double::doubleValue)
+                .average()
+                .orElse(0.0);
+        return new SlotAggregate(availabilities.size(), average, lowestDay, lowestAt, highestDay, highestAt, null);
+    }
+}
@@ -0,0 +1,97 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.parking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class WeeklyHistogramTest {
+
+    private final WeeklyHistogram histogram = new ArrayWeeklyHistogram(10);
+
+    @Test
+    void record_shouldKeepRunningAverage() {
+        histogram.record(DayOfWeek.MONDAY, LocalTime.of(8, 10), 0.5);
+        AvailabilityData recorded = histogram.record(DayOfWeek.MONDAY, LocalTime.of(8, 10), 0.25);
+
+        assertThat(recorded).isEqualTo(new AvailabilityData(2, 0.375));
+        assertThat(histogram.get(DayOfWeek.MONDAY, LocalTime.of(8, 10))).isEqualTo(recorded);
+        assertThat(histogram.get(DayOfWeek.MONDAY, LocalTime.of(8, 20))).isNull();
+        assertThat(histogram.get(DayOfWeek.MONDAY, LocalTime.of(8, 15))).isNull();
+    }
+
+    @Test
+    void asMap_shouldMatchNestedMapsWithSameData() {
+        Map<DayOfWeek, Map<LocalTime, AvailabilityData>> expected = new HashMap<>();
+        expected.put(
+                DayOfWeek.TUESDAY,
+                Map.of(
+                        LocalTime.MIDNIGHT, new AvailabilityData(3, 0.1),
+                        LocalTime.of(23, 50), new AvailabilityData(1, 1.0)));
+        expected.put(DayOfWeek.SUNDAY, Map.of(LocalTime.NOON, new AvailabilityData(7, 0.5)));
+
+        histogram.putAll(expected);
+        Map<DayOfWeek, Map<LocalTime, AvailabilityData>> view = histogram.asMap();
+
+        assertThat(view).isEqualTo(expected);
+        assertThat(view.keySet()).containsExactly(DayOfWeek.TUESDAY, DayOfWeek.SUNDAY);
+        assertThat(view.get(DayOfWeek.TUESDAY).keySet()).containsExactly(LocalTime.MIDNIGHT, LocalTime.of(23, 50));
+        assertThat(view.get(DayOfWeek.MONDAY)).isNull();
+        assertThat(view.getOrDefault(DayOfWeek.MONDAY, Map.of())).isEmpty();
+    }
+
+    @Test
+    void merge_shouldOnlyReplaceSlotsWithFewerSamples() {
+        histogram.put(DayOfWeek.FRIDAY, LocalTime.NOON, new AvailabilityData(5, 0.5));
+
+        histogram.merge(DayOfWeek.FRIDAY, LocalTime.NOON, new AvailabilityData(4, 0.9));
+        assertThat(histogram.get(DayOfWeek.FRIDAY, LocalTime.NOON)).isEqualTo(new AvailabilityData(5, 0.5));
+
+        histogram.merge(DayOfWeek.FRIDAY, LocalTime.NOON, new AvailabilityData(6, 0.9));
+        assertThat(histogram.get(DayOfWeek.FRIDAY, LocalTime.NOON)).isEqualTo(new AvailabilityData(6, 0.9));
+    }
+
+    @Test
+    void decay_shouldFollowRecentSamplesWhileLifetimeMeanLags() {
+        LocalTime time = LocalTime.of(8, 10);
+        double weight = WeeklyHistogram.decayWeight(2);
+        for (int week = 0; week < 20; week++) record(time, 0.2, weight);
+        for (int week = 0; week < 8; week++) record(time, 0.8, weight);
+
+        assertThat(histogram.get(DayOfWeek.MONDAY, time).averageAvailability()).isCloseTo(0.371, within(0.001));
+        assertThat(histogram.decayedAvailability(DayOfWeek.MONDAY, time)).isCloseTo(0.763, within(0.001));
+        assertThat(new ParkingData(1, 100, histogram.asDecayedMap()))
+                .isEqualTo(ParkingData.withHistogram(1, 100, histogram).decayed());
+        assertThat(histogram.asDecayedMap().get(DayOfWeek.MONDAY).get(time))
+                .isEqualTo(new AvailabilityData(28, histogram.decayedAvailability(DayOfWeek.MONDAY, time)));
+    }
+
+    @Test
+    void decay_shouldStartFromLifetimeMeanOfSlotsWithoutDecayState() {
+        histogram.put(DayOfWeek.MONDAY, LocalTime.NOON, new AvailabilityData(10, 0.4));
+        assertThat(histogram.asDecayedMap()).isEqualTo(histogram.asMap());
+
+        histogram.record(DayOfWeek.MONDAY, LocalTime.NOON, 0.95);
+        histogram.decay(DayOfWeek.MONDAY, LocalTime.NOON, 0.95, 0.5);
+
+        assertThat(histogram.decayedAvailability(DayOfWeek.MONDAY, LocalTime.NOON)).isCloseTo(0.45, within(1e-9));
+    }
+
+    @Test
+    void withHistogram_shouldExposeHistogramThroughParkingData() {
+        ParkingData parkingData = ParkingData.withHistogram(1, 100, histogram);
+        ParkingData mapBacked = new ParkingData(2, 100, new HashMap<>());
+
+        assertThat(parkingData.histogram()).isSameAs(histogram);
+        assertThat(mapBacked.histogram()).isNull();
+    }
+
+    private void record(LocalTime time, double availability, double weight) {
+        histogram.record(DayOfWeek.MONDAY, time, availability);
+        histogram.decay(DayOfWeek.MONDAY, time, availability, weight);
+    }
+}
@@ -0,0 +1,59 @@
+package pl.wrapper.parking.infrastructure.inMemory.dto.request;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Percentage.withPercentage;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void valueAtPercentile_shouldStayWithinBucketPrecisionOfExactPercentile() {
+        Random random = new Random(7);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextGaussian() * 1.5 + 9);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertThat(histogram.totalCount()).isEqualTo(values.length);
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            assertThat(histogram.valueAtPercentile(percentile))
+                    .as("p%s", percentile)
+                    .isCloseTo(exact, withPercentage(3.5));
+        }
+    }
+
+    @Test
+    void bucketIndex_shouldBeContiguousAndMidpointsClose() {
+        int previous = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            int bucket = LatencyHistogram.bucketIndex(value);
+            assertThat(bucket).isBetween(previous, previous + 1);
+            if (value > 0) assertThat(LatencyHistogram.bucketMidpoint(bucket)).isCloseTo(value, withPercentage(3.5));
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void record_shouldClampOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.totalCount()).isEqualTo(2);
+        assertThat(histogram.valueAtPercentile(50)).isZero();
+        assertThat(histogram.valueAtPercentile(100))
+                .isEqualTo(LatencyHistogram.bucketMidpoint(LatencyHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    void valueAtPercentile_shouldReturnZeroWhenEmpty() {
+        assertThat(new LatencyHistogram().valueAtPercentile(99)).isZero();
+    }
+}
@@ -0,0 +1,67 @@
+package pl.wrapper.parking.infrastructure.inMemory.grid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.AvailabilityData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.parking.ParkingData;
+
+class MappedAvailabilityGridTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void record_shouldKeepRunningAverageVisibleThroughHistoryView() throws IOException {
+        try (MappedAvailabilityGrid grid = MappedAvailabilityGrid.open(directory.resolve("data.grid"), 10)) {
+            grid.record(4, 100, DayOfWeek.MONDAY, LocalTime.of(8, 10), 0.5);
+            grid.record(4, 100, DayOfWeek.MONDAY, LocalTime.of(8, 10), 0.25);
+            grid.record(4, 100, DayOfWeek.FRIDAY, LocalTime.of(23, 50), 1.0);
+
+            ParkingData parkingData = grid.parkingData(4);
+            Map<DayOfWeek, Map<LocalTime, AvailabilityData>> history = parkingData.freeSpotsHistory();
+
+            assertThat(parkingData.totalSpots()).isEqualTo(100);
+            assertThat(history.keySet()).containsExactly(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+            assertThat(history.get(DayOfWeek.MONDAY)).containsExactly(
+                    Map.entry(LocalTime.of(8, 10), new AvailabilityData(2, 0.375)));
+            assertThat(history.get(DayOfWeek.FRIDAY).get(LocalTime.of(23, 50))).isEqualTo(new AvailabilityData(1, 1.0));
+            assertThat(history.get(DayOfWeek.TUESDAY)).isNull();
+            assertThat(history.getOrDefault(DayOfWeek.MONDAY, Map.of()).get(LocalTime.of(8, 15))).isNull();
+        }
+    }
+
+    @Test
+    void open_shouldRestoreGridWrittenBefore() throws IOException {
+        Path path = directory.resolve("data.grid");
+        try (MappedAvailabilityGrid grid = MappedAvailabilityGrid.open(path, 10)) {
+            for (int parkingId = 1; parkingId <= 40; parkingId++)
+                grid.record(parkingId, parkingId * 10, DayOfWeek.SUNDAY, LocalTime.NOON, parkingId / 100.0);
+        }
+
+        try (MappedAvailabilityGrid grid = MappedAvailabilityGrid.open(path, 10)) {
+            assertThat(grid.parkings()).hasSize(40);
+            assertThat(grid.parkingData(33).totalSpots()).isEqualTo(330);
+            assertThat(grid.parkingData(33).freeSpotsHistory().get(DayOfWeek.SUNDAY).get(LocalTime.NOON))
+                    .isEqualTo(new AvailabilityData(1, 0.33));
+        }
+    }
+
+    @Test
+    void open_shouldStartEmptyWhenSlotLengthChanged() throws IOException {
+        Path path = directory.resolve("data.grid");
+        try (MappedAvailabilityGrid grid = MappedAvailabilityGrid.open(path, 10)) {
+            grid.record(1, 100, DayOfWeek.MONDAY, LocalTime.NOON, 0.5);
+        }
+
+        try (MappedAvailabilityGrid grid = MappedAvailabilityGrid.open(path, 15)) {
+            assertThat(grid.isEmpty()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package pl.wrapper.parking.infrastructure.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RequestEventBufferTest {
+
+    @Test
+    void offer_shouldRejectEventsWhenFull() {
+        RequestEventBuffer buffer = new RequestEventBuffer(4);
+        for (int i = 0; i < 4; i++) assertThat(buffer.offer(i, true, i, i)).isTrue();
+
+        assertThat(buffer.offer(4, true, 4, 4)).isFalse();
+        assertThat(buffer.drain((endpointId, successful, timestamp, duration) -> {}, 1)).isEqualTo(1);
+        assertThat(buffer.offer(4, false, 4, 4)).isTrue();
+    }
+
+    @Test
+    void drain_shouldDeliverEveryEventOfConcurrentProducersInPerProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int eventsPerProducer = 50_000;
+        RequestEventBuffer buffer = new RequestEventBuffer(1024);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    while (!buffer.offer(producer, i % 2 == 0, i, 2L * i)) Thread.onSpinWait();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] lastTimestamps = {-1, -1, -1, -1};
+        int[] received = new int[producers];
+        boolean[] ordered = {true};
+        int total = 0;
+        while (total < producers * eventsPerProducer) {
+            total += buffer.drain(
+                    (endpointId, successful, timestamp, duration) -> {
+                        ordered[0] &= timestamp == lastTimestamps[endpointId] + 1
+                                && successful == (timestamp % 2 == 0)
+                                && duration == 2 * timestamp;
+                        lastTimestamps[endpointId] = timestamp;
+                        received[endpointId]++;
+                    },
+                    256);
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertThat(ordered[0]).isTrue();
+        assertThat(received).containsOnly(eventsPerProducer);
+        assertThat(buffer.drain((endpointId, successful, timestamp, duration) -> {}, 1)).isZero();
+    }
+}
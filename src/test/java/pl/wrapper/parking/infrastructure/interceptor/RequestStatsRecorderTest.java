@@ -0,0 +1,81 @@
+package pl.wrapper.parking.infrastructure.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Percentage.withPercentage;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.wrapper.parking.infrastructure.inMemory.ParkingRequestRepository;
+import pl.wrapper.parking.infrastructure.inMemory.RequestLatencyRepository;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointData;
+import pl.wrapper.parking.infrastructure.inMemory.dto.request.EndpointDataFactory;
+
+class RequestStatsRecorderTest {
+
+    @TempDir
+    private Path directory;
+
+    private ParkingRequestRepository repository;
+
+    private final RequestLatencyRepository latencyRepository = new RequestLatencyRepository(30);
+
+    @BeforeEach
+    void setUp() {
+        EndpointDataFactory endpointDataFactory = new EndpointDataFactory() {
+            @Override
+            public EndpointData create() {
+                return new EndpointData(30);
+            }
+        };
+        repository = new ParkingRequestRepository(
+                directory.resolve("requests").toString(), endpointDataFactory, Runnable::run);
+    }
+
+    @Test
+    void drainBatch_shouldAggregateRecordedRequestsIntoRepository() {
+        RequestStatsRecorder recorder = new RequestStatsRecorder(repository, latencyRepository, 16, 10);
+        recorder.record("/parkings", true, 1_000_000);
+        recorder.record("/parkings", false, 1_000_000);
+        recorder.record("/parkings/free", true, 1_000_000);
+
+        assertThat(recorder.drainBatch()).isEqualTo(3);
+
+        assertThat(repository.get("/parkings").getRequestCount()).isEqualTo(2);
+        assertThat(repository.get("/parkings").getSuccessCount()).isEqualTo(1);
+        assertThat(repository.get("/parkings/free").getRequestCount()).isEqualTo(1);
+        assertThat(repository.getTotalEndpoint().getRequestCount()).isEqualTo(3);
+        assertThat(latencyRepository.fetchAll().get("/parkings").getTotal().totalCount()).isEqualTo(2);
+        assertThat(latencyRepository.fetchAll().get("total").getTotal().valueAtPercentile(50))
+                .isCloseTo(1000, withPercentage(3));
+        assertThat(recorder.drainBatch()).isZero();
+    }
+
+    @Test
+    void record_shouldCountDroppedEventsWhenBufferIsFull() {
+        RequestStatsRecorder recorder = new RequestStatsRecorder(repository, latencyRepository, 2, 10);
+        for (int i = 0; i < 5; i++) recorder.record("/parkings", true, 1_000_000);
+
+        assertThat(recorder.getDroppedEventCount()).isEqualTo(3);
+        recorder.drainBatch();
+        assertThat(repository.get("/parkings").getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void record_shouldFoldEndpointsBeyondCapIntoOther() {
+        RequestStatsRecorder recorder = new RequestStatsRecorder(repository, latencyRepository, 16, 3);
+        recorder.record("/parkings", true, 1_000_000);
+        recorder.record("/chart/{id}", true, 1_000_000);
+        recorder.record("/random/1", true, 1_000_000);
+        recorder.record("/random/2", false, 1_000_000);
+        recorder.record("/parkings", true, 1_000_000);
+
+        recorder.drainBatch();
+
+        assertThat(repository.fetchAllKeys())
+                .containsExactlyInAnyOrder("total", "/parkings", "/chart/{id}", RequestStatsRecorder.OTHER_ENDPOINT);
+        assertThat(repository.get(RequestStatsRecorder.OTHER_ENDPOINT).getRequestCount()).isEqualTo(2);
+        assertThat(repository.get("/parkings").getRequestCount()).isEqualTo(2);
+    }
+}
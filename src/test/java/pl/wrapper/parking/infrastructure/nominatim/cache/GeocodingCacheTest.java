@@ -0,0 +1,119 @@
+package pl.wrapper.parking.infrastructure.nominatim.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.LinkedMultiValueMap;
+import pl.wrapper.parking.facade.dto.main.NominatimLocation;
+import pl.wrapper.parking.infrastructure.nominatim.cache.GeocodingCache.CachedGeocode;
+import pl.wrapper.parking.infrastructure.nominatim.client.NominatimClient;
+import reactor.core.publisher.Flux;
+
+@ExtendWith(MockitoExtension.class)
+class GeocodingCacheTest {
+
+    @Mock
+    private NominatimClient nominatimClient;
+
+    @Test
+    void geocode_shouldQueryNominatimOncePerNormalizedAddress() {
+        NominatimLocation location = new NominatimLocation(51.1, 17.05);
+        when(nominatimClient.search("wybrzeze wyspianskiego 27, wroclaw", "json")).thenReturn(Flux.just(location));
+        GeocodingCache geocodingCache = new GeocodingCache(nominatimClient, 100, 30, 6, "");
+
+        assertThat(geocodingCache.geocode("Wybrzeze Wyspianskiego 27, Wroclaw")).contains(location);
+        assertThat(geocodingCache.geocode("  wybrzeze   wyspianskiego 27 ,Wroclaw ")).contains(location);
+
+        verify(nominatimClient, times(1)).search(anyString(), anyString());
+    }
+
+    @Test
+    void geocode_shouldCacheAddressesWithoutResults() {
+        when(nominatimClient.search("nowhere", "json")).thenReturn(Flux.empty());
+        GeocodingCache geocodingCache = new GeocodingCache(nominatimClient, 100, 30, 6, "");
+
+        assertThat(geocodingCache.geocode("nowhere")).isEmpty();
+        assertThat(geocodingCache.geocode("Nowhere")).isEmpty();
+
+        verify(nominatimClient, times(1)).search(anyString(), anyString());
+    }
+
+    @Test
+    void persist_shouldSurviveRestart(@TempDir Path directory) {
+        String location = directory.resolve("geocoding").toString();
+        NominatimLocation found = new NominatimLocation(51.1, 17.05);
+        when(nominatimClient.search("plac grunwaldzki", "json")).thenReturn(Flux.just(found));
+        GeocodingCache beforeRestart = new GeocodingCache(nominatimClient, 100, 30, 6, location);
+        beforeRestart.geocode("plac grunwaldzki");
+        beforeRestart.persist();
+
+        GeocodingCache afterRestart = new GeocodingCache(nominatimClient, 100, 30, 6, location);
+        afterRestart.load();
+
+        assertThat(afterRestart.geocode("Plac Grunwaldzki")).contains(found);
+        verify(nominatimClient, times(1)).search(anyString(), anyString());
+    }
+
+    @Test
+    void load_shouldDropEntriesPastTtl(@TempDir Path directory) {
+        String location = directory.resolve("geocoding").toString();
+        when(nominatimClient.search("nowhere", "json")).thenReturn(Flux.empty());
+        GeocodingCache beforeRestart = new GeocodingCache(nominatimClient, 100, 30, 6, location);
+        beforeRestart.geocode("nowhere");
+        beforeRestart.persist();
+
+        GeocodingCache afterRestart = new GeocodingCache(nominatimClient, 100, 30, 0, location);
+        afterRestart.load();
+        afterRestart.geocode("nowhere");
+
+        verify(nominatimClient, times(2)).search("nowhere", "json");
+    }
+
+    @Test
+    void load_shouldReadCacheWrittenWithJavaSerialization(@TempDir Path directory) throws IOException {
+        Path location = directory.resolve("geocoding");
+        Map<String, CachedGeocode> legacy = new HashMap<>();
+        legacy.put("plac grunwaldzki", new CachedGeocode(true, 51.1, 17.05, System.currentTimeMillis()));
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(location))) {
+            out.writeObject(legacy);
+        }
+
+        GeocodingCache geocodingCache = new GeocodingCache(nominatimClient, 100, 30, 6, location.toString());
+        geocodingCache.load();
+
+        assertThat(geocodingCache.geocode("plac grunwaldzki")).contains(new NominatimLocation(51.1, 17.05));
+        verifyNoInteractions(nominatimClient);
+    }
+
+    @Test
+    void load_shouldRejectClassesOutsideSnapshotFilter(@TempDir Path directory) throws IOException {
+        Path location = directory.resolve("geocoding");
+        Map<String, Object> foreign = new HashMap<>();
+        foreign.put("plac grunwaldzki", new LinkedMultiValueMap<String, String>());
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(location))) {
+            out.writeObject(foreign);
+        }
+        when(nominatimClient.search("plac grunwaldzki", "json")).thenReturn(Flux.empty());
+
+        GeocodingCache geocodingCache = new GeocodingCache(nominatimClient, 100, 30, 6, location.toString());
+        geocodingCache.load();
+        geocodingCache.geocode("plac grunwaldzki");
+
+        verify(nominatimClient, times(1)).search("plac grunwaldzki", "json");
+    }
+}
@@ -7,6 +7,7 @@ import static pl.wrapper.parking.pwrResponseHandler.configuration.WebClientConfi
 
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
@@ -51,7 +52,7 @@ class WebClientTest {
         PwrApiCaller apiCaller = Mockito.mock(PwrApiCaller.class);
         Mockito.when(apiCaller.fetchParkingPlaces()).thenReturn(Mono.error(provided));
 
-        PwrApiServerCaller pwrApiServerCaller = new PwrApiServerCallerImpl(apiCaller);
+        PwrApiServerCaller pwrApiServerCaller = new PwrApiServerCallerImpl(apiCaller, new ConcurrentMapCacheManager());
         Exception e = assertThrows(provided.getClass(), pwrApiServerCaller::fetchParkingData);
 
         assertEquals(provided.getMessage(), e.getMessage());
@@ -0,0 +1,75 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import pl.wrapper.parking.infrastructure.error.ParkingError;
+import pl.wrapper.parking.infrastructure.error.Result;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingChanges;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta.Change;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
+
+class ParkingChangeLogImplTest {
+
+    private final ParkingChangeLogImpl changeLog = new ParkingChangeLogImpl(2);
+    private List<ParkingResponse> previous = List.of();
+    private long sequence;
+
+    @Test
+    void changesSince_shouldMergeDeltasOfAllLaterSnapshots() {
+        String first = publish(parking(1, 10), parking(2, 20));
+        publish(parking(1, 9), parking(2, 20));
+        publish(parking(1, 9), parking(2, 20));
+        String latest = publish(parking(1, 8), parking(2, 21));
+
+        ParkingChanges changes = changeLog.changesSince(first).getData();
+
+        assertThat(changes.full()).isFalse();
+        assertThat(changes.version()).isEqualTo(latest);
+        assertThat(changes.changes())
+                .containsExactly(
+                        new ParkingDelta(1, Change.UPDATED, Map.of("freeSpots", 8)),
+                        new ParkingDelta(2, Change.UPDATED, Map.of("freeSpots", 21)));
+        assertThat(changeLog.changesSince(latest).getData().changes()).isEmpty();
+    }
+
+    @Test
+    void changesSince_shouldReturnFullListForUnknownOrExpiredVersion() {
+        String first = publish(parking(1, 10));
+        publish(parking(1, 9));
+        publish(parking(1, 8));
+        publish(parking(1, 7));
+
+        for (String since : new String[] {first, null, "0-1", "garbage"}) {
+            ParkingChanges changes = changeLog.changesSince(since).getData();
+            assertThat(changes.full()).isTrue();
+            assertThat(changes.changes()).containsExactly(ParkingSnapshotDiff.added(parking(1, 7)));
+        }
+    }
+
+    @Test
+    void changesSince_shouldFailBeforeFirstSnapshot() {
+        Result<ParkingChanges> result = changeLog.changesSince(null);
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getError()).isInstanceOf(ParkingError.ParkingChangesNotAvailable.class);
+    }
+
+    private String publish(ParkingResponse... parkings) {
+        List<ParkingResponse> next = List.of(parkings);
+        ParkingSnapshot snapshot =
+                new ParkingSnapshot(++sequence, LocalDateTime.now(), next, ParkingSnapshotDiff.diff(previous, next));
+        previous = next;
+        changeLog.onSnapshot(snapshot);
+        return snapshot.version();
+    }
+
+    private static ParkingResponse parking(int id, int freeSpots) {
+        return ParkingResponse.builder().parkingId(id).freeSpots(freeSpots).build();
+    }
+}
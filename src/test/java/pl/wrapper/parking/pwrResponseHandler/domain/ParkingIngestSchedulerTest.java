@@ -0,0 +1,64 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import pl.wrapper.parking.infrastructure.exception.PwrApiNotRespondingException;
+import pl.wrapper.parking.pwrResponseHandler.ParkingSnapshotSink;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
+import reactor.core.publisher.Mono;
+
+class ParkingIngestSchedulerTest {
+
+    private final PwrApiCaller pwrApiCaller = mock(PwrApiCaller.class);
+    private final List<ParkingSnapshot> first = new ArrayList<>();
+    private final List<ParkingSnapshot> second = new ArrayList<>();
+
+    @Test
+    void ingest_shouldFetchOnceAndPublishSameSnapshotToAllSinks() {
+        List<ParkingResponse> parkings =
+                List.of(ParkingResponse.builder().parkingId(1).freeSpots(5).build());
+        when(pwrApiCaller.fetchParkingPlaces()).thenReturn(Mono.just(parkings));
+        ParkingIngestScheduler scheduler = new ParkingIngestScheduler(pwrApiCaller, List.of(first::add, second::add));
+
+        scheduler.ingest();
+        scheduler.ingest();
+
+        verify(pwrApiCaller, times(2)).fetchParkingPlaces();
+        assertThat(first).extracting(ParkingSnapshot::sequence).containsExactly(1L, 2L);
+        assertThat(second).containsExactlyElementsOf(first);
+        assertThat(first.getFirst().parkings()).isEqualTo(parkings);
+        assertThat(first.getFirst().unchanged()).isFalse();
+        assertThat(first.getLast().unchanged()).isTrue();
+    }
+
+    @Test
+    void ingest_shouldKeepPublishingToRemainingSinksWhenOneFails() {
+        when(pwrApiCaller.fetchParkingPlaces()).thenReturn(Mono.just(List.of()));
+        ParkingSnapshotSink failing = snapshot -> {
+            throw new IllegalStateException("sink down");
+        };
+        ParkingIngestScheduler scheduler = new ParkingIngestScheduler(pwrApiCaller, List.of(failing, first::add));
+
+        scheduler.ingest();
+
+        assertThat(first).hasSize(1);
+    }
+
+    @Test
+    void ingest_shouldPublishNothingWhenUpstreamFails() {
+        when(pwrApiCaller.fetchParkingPlaces()).thenReturn(Mono.error(new PwrApiNotRespondingException("down")));
+        ParkingIngestScheduler scheduler = new ParkingIngestScheduler(pwrApiCaller, List.of(first::add));
+
+        scheduler.ingest();
+
+        assertThat(first).isEmpty();
+    }
+}
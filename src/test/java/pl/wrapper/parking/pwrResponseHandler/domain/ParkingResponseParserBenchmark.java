@@ -0,0 +1,131 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import pl.wrapper.parking.pwrResponseHandler.dto.Address;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+/*
+ * Compares the streaming ParkingResponseParser with the previous HashMap based decoding of get_parks.
+ * Run main() from the IDE (test classpath); the GC profiler reports gc.alloc.rate.norm per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParkingResponseParserBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int parkingCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] payload;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                        .include(ParkingResponseParserBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"success\":0,\"places\":[");
+        for (int i = 0; i < parkingCount; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":\"")
+                    .append(i)
+                    .append("\",\"nazwa\":\"Parking ")
+                    .append(i)
+                    .append("\",\"symbol\":\"P")
+                    .append(i)
+                    .append("\",\"liczba_miejsc\":\"")
+                    .append(i % 90)
+                    .append("\",\"places\":\"97\",\"open_hour\":\"07:00:00\",\"close_hour\":\"22:00:00\"")
+                    .append(",\"address\":\" Wybrzeze Wyspianskiego 27, 50-370 Wroclaw \"")
+                    .append(",\"geo_lat\":\"51.10")
+                    .append(i)
+                    .append("\",\"geo_lan\":\"17.05")
+                    .append(i)
+                    .append("\",\"trend\":\"0\",\"photo\":\"/images/photos/geo-l01.jpg\"}");
+        }
+        payload = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<ParkingResponse> streamingParser() throws IOException {
+        return ParkingResponseParser.parse(new ByteArrayInputStream(payload));
+    }
+
+    @Benchmark
+    public List<ParkingResponse> mapBasedParser() throws IOException {
+        HashMap<?, ?> decoded = objectMapper.readValue(payload, HashMap.class);
+        return legacyParseResponse(decoded.get("places"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ParkingResponse> legacyParseResponse(Object unparsedResponse) {
+        List<ParkingResponse> returnList = new ArrayList<>();
+        ArrayList<Object> firstTierCastList = (ArrayList<Object>) unparsedResponse;
+        int parkingId = 0;
+        for (Object currentParkingPrecast : firstTierCastList) {
+            LinkedHashMap<String, String> currentParking;
+            try {
+                currentParking = (LinkedHashMap<String, String>) currentParkingPrecast;
+            } catch (ClassCastException e) {
+                continue;
+            }
+            int boundlessFreeSpots = Integer.parseInt(currentParking.getOrDefault("liczba_miejsc", "0"));
+            int totalSpots = Integer.parseInt(currentParking.getOrDefault("places", "0"));
+            returnList.add(ParkingResponse.builder()
+                    .parkingId(++parkingId)
+                    .name(currentParking.getOrDefault("nazwa", "unknown"))
+                    .freeSpots(Math.max(0, Math.min(totalSpots, boundlessFreeSpots)))
+                    .symbol(currentParking.getOrDefault("symbol", "unknown"))
+                    .openingHours(legacyParsedTime(currentParking.get("open_hour")))
+                    .closingHours(legacyParsedTime(currentParking.get("close_hour")))
+                    .totalSpots(totalSpots)
+                    .address(new Address(
+                            currentParking.getOrDefault("address", "unknown").strip(),
+                            Float.parseFloat(currentParking.get("geo_lat")),
+                            Float.parseFloat(currentParking.get("geo_lan"))))
+                    .trend(Short.parseShort(currentParking.getOrDefault("trend", "0")))
+                    .urlToPhoto(currentParking.getOrDefault("photo", "unknown"))
+                    .build());
+        }
+        return returnList;
+    }
+
+    private static LocalTime legacyParsedTime(String time) {
+        if (time == null) return null;
+        return LocalTime.parse(time, DateTimeFormatter.ISO_LOCAL_TIME);
+    }
+}
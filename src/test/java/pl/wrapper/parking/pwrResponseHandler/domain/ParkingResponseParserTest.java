@@ -0,0 +1,101 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import pl.wrapper.parking.pwrResponseHandler.dto.Address;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+class ParkingResponseParserTest {
+
+    private static List<ParkingResponse> parse(String json) throws IOException {
+        return ParkingResponseParser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldParseAllFields() throws IOException {
+        String json =
+                """
+                {"success": 0, "places": [{
+                    "id": "4", "nazwa": "Parking Wroniecka", "symbol": "WRO", "liczba_miejsc": "33",
+                    "places": "97", "open_hour": "07:00:00", "close_hour": "22:00:00",
+                    "address": " Wroniecka 5, 50-000 Wroclaw ", "geo_lat": "51.1", "geo_lan": "17.05",
+                    "trend": "-1", "photo": "/images/photos/geo-l01.jpg", "extra": {"nested": [1, 2]}
+                }]}
+                """;
+
+        List<ParkingResponse> result = parse(json);
+
+        assertEquals(1, result.size());
+        ParkingResponse expected = ParkingResponse.builder()
+                .parkingId(1)
+                .name("Parking Wroniecka")
+                .symbol("WRO")
+                .freeSpots(33)
+                .totalSpots(97)
+                .openingHours(LocalTime.of(7, 0))
+                .closingHours(LocalTime.of(22, 0))
+                .address(new Address("Wroniecka 5, 50-000 Wroclaw", 51.1f, 17.05f))
+                .trend((short) -1)
+                .urlToPhoto("/images/photos/geo-l01.jpg")
+                .build();
+        assertEquals(expected, result.getFirst());
+    }
+
+    @Test
+    void shouldApplyDefaultsAndClampFreeSpots() throws IOException {
+        String json =
+                """
+                {"places": [
+                    {"liczba_miejsc": "120", "places": "100", "geo_lat": "1.0", "geo_lan": "2.0"},
+                    {"liczba_miejsc": "-4", "places": "100", "geo_lat": 1.5, "geo_lan": 2.5, "open_hour": null}
+                ]}
+                """;
+
+        List<ParkingResponse> result = parse(json);
+
+        assertEquals(100, result.get(0).freeSpots());
+        assertEquals("unknown", result.get(0).name());
+        assertEquals("unknown", result.get(0).symbol());
+        assertEquals("unknown", result.get(0).address().streetAddress());
+        assertEquals(0, result.get(0).trend());
+        assertEquals(0, result.get(1).freeSpots());
+        assertEquals(1.5f, result.get(1).address().geoLatitude());
+        assertNull(result.get(1).openingHours());
+    }
+
+    @Test
+    void shouldSkipNonObjectEntriesWithoutConsumingIds() throws IOException {
+        String json =
+                """
+                {"places": [
+                    "garbage",
+                    {"symbol": "A", "geo_lat": "1", "geo_lan": "1"},
+                    [1, 2, 3],
+                    {"symbol": "B", "geo_lat": "1", "geo_lan": "1"}
+                ]}
+                """;
+
+        List<ParkingResponse> result = parse(json);
+
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).parkingId());
+        assertEquals("A", result.get(0).symbol());
+        assertEquals(2, result.get(1).parkingId());
+        assertEquals("B", result.get(1).symbol());
+    }
+
+    @Test
+    void shouldFailWithoutPlacesArray() {
+        assertThrows(JsonProcessingException.class, () -> parse("{\"success\": 0}"));
+        assertThrows(JsonProcessingException.class, () -> parse("[]"));
+    }
+}
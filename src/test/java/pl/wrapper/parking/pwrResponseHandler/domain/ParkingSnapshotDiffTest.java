@@ -0,0 +1,65 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingDelta.Change;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+
+class ParkingSnapshotDiffTest {
+
+    @Test
+    void diff_shouldReportOnlyChangedFields() {
+        List<ParkingResponse> previous = List.of(parking(1, 10, (short) 0), parking(2, 20, (short) 0));
+        List<ParkingResponse> next = List.of(parking(1, 10, (short) 0), parking(2, 18, (short) -1));
+
+        assertThat(ParkingSnapshotDiff.diff(previous, next))
+                .containsExactly(new ParkingDelta(2, Change.UPDATED, Map.of("freeSpots", 18, "trend", (short) -1)));
+        assertThat(ParkingSnapshotDiff.diff(next, List.copyOf(next))).isEmpty();
+    }
+
+    @Test
+    void diff_shouldReportAddedAndRemovedParkings() {
+        List<ParkingDelta> deltas =
+                ParkingSnapshotDiff.diff(List.of(parking(1, 10, (short) 0)), List.of(parking(2, 5, (short) 1)));
+
+        assertThat(deltas)
+                .extracting(ParkingDelta::parkingId, ParkingDelta::change)
+                .containsExactly(tuple(2, Change.ADDED), tuple(1, Change.REMOVED));
+        assertThat(deltas.getFirst().fields())
+                .containsEntry("freeSpots", 5)
+                .containsEntry("name", "Parking 2")
+                .containsKey("closingHours");
+        assertThat(deltas.getLast().fields()).isEmpty();
+    }
+
+    @Test
+    void merge_shouldKeepLatestValueOfEveryChangedField() {
+        ParkingDelta first = new ParkingDelta(1, Change.UPDATED, Map.of("freeSpots", 9, "trend", (short) -1));
+        ParkingDelta second = new ParkingDelta(1, Change.UPDATED, Map.of("freeSpots", 7));
+        ParkingDelta added = ParkingSnapshotDiff.added(parking(1, 10, (short) 0));
+        ParkingDelta removed = new ParkingDelta(1, Change.REMOVED, Map.of());
+
+        assertThat(ParkingSnapshotDiff.merge(first, second).fields())
+                .isEqualTo(Map.of("freeSpots", 7, "trend", (short) -1));
+        assertThat(ParkingSnapshotDiff.merge(added, second).change()).isEqualTo(Change.ADDED);
+        assertThat(ParkingSnapshotDiff.merge(added, second).fields()).containsEntry("freeSpots", 7);
+        assertThat(ParkingSnapshotDiff.merge(first, removed)).isEqualTo(removed);
+        assertThat(ParkingSnapshotDiff.merge(removed, added)).isEqualTo(added);
+    }
+
+    private static ParkingResponse parking(int id, int freeSpots, short trend) {
+        return ParkingResponse.builder()
+                .parkingId(id)
+                .freeSpots(freeSpots)
+                .totalSpots(50)
+                .name("Parking " + id)
+                .symbol("P" + id)
+                .trend(trend)
+                .build();
+    }
+}
@@ -67,4 +67,8 @@ public final class PwrApiCaller {
                         .address(new Address("Downtown Ln", 0.3f, 2.1f))
                         .build()));
     }
+
+    public Mono<List<Object>> fetchAllParkingCharts() {
+        return Mono.just(List.of());
+    }
 }
@@ -1,11 +1,28 @@
 package pl.wrapper.parking.pwrResponseHandler.domain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import pl.wrapper.parking.infrastructure.exception.PwrApiNotRespondingException;
+import pl.wrapper.parking.infrastructure.util.DataVersion;
 import pl.wrapper.parking.pwrResponseHandler.PwrApiServerCaller;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingResponse;
+import pl.wrapper.parking.pwrResponseHandler.dto.ParkingSnapshot;
 import reactor.core.publisher.Mono;
 
 public class PwrApiCallerTest {
@@ -16,9 +33,126 @@ public class PwrApiCallerTest {
         PwrApiCaller apiCaller = Mockito.mock(PwrApiCaller.class);
         Mockito.when(apiCaller.fetchParkingPlaces()).thenReturn(Mono.error(provided));
 
-        PwrApiServerCaller pwrApiServerCaller = new PwrApiServerCallerImpl(apiCaller);
+        PwrApiServerCaller pwrApiServerCaller = new PwrApiServerCallerImpl(apiCaller, new ConcurrentMapCacheManager());
         Exception e = assertThrows(provided.getClass(), pwrApiServerCaller::fetchParkingData);
 
         assertEquals(provided.getMessage(), e.getMessage());
     }
+
+    @Test
+    void onSnapshot_shouldSwapInFreshData() {
+        List<ParkingResponse> stale = List.of(ParkingResponse.builder().parkingId(1).build());
+        List<ParkingResponse> fresh = List.of(ParkingResponse.builder().parkingId(2).build());
+        PwrApiCaller apiCaller = Mockito.mock(PwrApiCaller.class);
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        Cache cache = cacheManager.getCache(PwrApiServerCallerImpl.PARKING_LIST_CACHE);
+        cache.put(SimpleKey.EMPTY, stale);
+
+        new PwrApiServerCallerImpl(apiCaller, cacheManager).onSnapshot(snapshot(stale, fresh));
+
+        assertEquals(fresh, cache.get(SimpleKey.EMPTY, List.class));
+        Mockito.verifyNoInteractions(apiCaller);
+    }
+
+    @Test
+    void refreshCache_shouldKeepServingStaleDataWithinExpireAfterWrite() {
+        List<Object> stale = List.of("chart");
+        PwrApiCaller apiCaller = Mockito.mock(PwrApiCaller.class);
+        Mockito.when(apiCaller.fetchAllParkingCharts())
+                .thenReturn(Mono.just(stale))
+                .thenReturn(Mono.error(new PwrApiNotRespondingException("down")));
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        Cache cache = cacheManager.getCache(PwrApiServerCallerImpl.CHART_CACHE);
+        cache.put(SimpleKey.EMPTY, List.of());
+        PwrApiServerCallerImpl pwrApiServerCaller = new PwrApiServerCallerImpl(apiCaller, cacheManager);
+
+        pwrApiServerCaller.refreshCache();
+        pwrApiServerCaller.refreshCache();
+
+        assertEquals(stale, cache.get(SimpleKey.EMPTY, List.class));
+    }
+
+    @Test
+    void refreshCache_shouldStopServingDataPastExpireAfterWrite() {
+        PwrApiCaller apiCaller = Mockito.mock(PwrApiCaller.class);
+        Mockito.when(apiCaller.fetchAllParkingCharts())
+                .thenReturn(Mono.error(new PwrApiNotRespondingException("down")));
+        AtomicLong nanos = new AtomicLong();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(
+                PwrApiServerCallerImpl.CHART_CACHE,
+                Caffeine.newBuilder()
+                        .expireAfterWrite(Duration.ofMinutes(15))
+                        .ticker(nanos::get)
+                        .build());
+        Cache cache = cacheManager.getCache(PwrApiServerCallerImpl.CHART_CACHE);
+        cache.put(SimpleKey.EMPTY, List.of());
+        PwrApiServerCallerImpl pwrApiServerCaller = new PwrApiServerCallerImpl(apiCaller, cacheManager);
+
+        nanos.addAndGet(Duration.ofMinutes(10).toNanos());
+        pwrApiServerCaller.refreshCache();
+        assertEquals(List.of(), cache.get(SimpleKey.EMPTY, List.class));
+
+        nanos.addAndGet(Duration.ofMinutes(10).toNanos());
+        assertNull(cache.get(SimpleKey.EMPTY));
+    }
+
+    @Test
+    void parkingDataVersion_shouldChangeOnlyWithContent() {
+        List<ParkingResponse> first = List.of(ParkingResponse.builder().parkingId(1).build());
+        List<ParkingResponse> sameContent = List.of(ParkingResponse.builder().parkingId(1).build());
+        List<ParkingResponse> changed = List.of(ParkingResponse.builder().parkingId(2).build());
+        PwrApiCaller apiCaller = Mockito.mock(PwrApiCaller.class);
+        Mockito.when(apiCaller.fetchParkingPlaces()).thenReturn(Mono.just(first));
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        Cache cache = cacheManager.getCache(PwrApiServerCallerImpl.PARKING_LIST_CACHE);
+        PwrApiServerCallerImpl pwrApiServerCaller = new PwrApiServerCallerImpl(apiCaller, cacheManager);
+
+        assertNull(pwrApiServerCaller.getParkingDataVersion());
+        cache.put(SimpleKey.EMPTY, pwrApiServerCaller.fetchParkingData());
+        DataVersion initial = pwrApiServerCaller.getParkingDataVersion();
+        pwrApiServerCaller.onSnapshot(snapshot(first, sameContent));
+        assertEquals(initial, pwrApiServerCaller.getParkingDataVersion());
+        pwrApiServerCaller.onSnapshot(snapshot(sameContent, changed));
+        assertNotEquals(initial.etag(), pwrApiServerCaller.getParkingDataVersion().etag());
+    }
+
+    @Test
+    void parkingDataVersion_shouldChangeWhenContentChangesWithSameHashCode() {
+        List<ParkingResponse> first = List.of(
+                ParkingResponse.builder().parkingId(1).freeSpots(10).build(),
+                ParkingResponse.builder().parkingId(2).freeSpots(40).build());
+        List<ParkingResponse> colliding = List.of(
+                ParkingResponse.builder().parkingId(1).freeSpots(11).build(),
+                ParkingResponse.builder().parkingId(2).freeSpots(9).build());
+        PwrApiCaller apiCaller = Mockito.mock(PwrApiCaller.class);
+        Mockito.when(apiCaller.fetchParkingPlaces()).thenReturn(Mono.just(first));
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        Cache cache = cacheManager.getCache(PwrApiServerCallerImpl.PARKING_LIST_CACHE);
+        PwrApiServerCallerImpl pwrApiServerCaller = new PwrApiServerCallerImpl(apiCaller, cacheManager);
+
+        cache.put(SimpleKey.EMPTY, pwrApiServerCaller.fetchParkingData());
+        DataVersion initial = pwrApiServerCaller.getParkingDataVersion();
+        pwrApiServerCaller.onSnapshot(snapshot(first, colliding));
+
+        assertNotEquals(initial.etag(), pwrApiServerCaller.getParkingDataVersion().etag());
+    }
+
+    @Test
+    void onSnapshot_shouldKeepCachedInstanceWhenNothingChanged() {
+        List<ParkingResponse> cached = List.of(ParkingResponse.builder().parkingId(1).build());
+        List<ParkingResponse> sameContent = List.of(ParkingResponse.builder().parkingId(1).build());
+        CacheManager cacheManager = new ConcurrentMapCacheManager();
+        Cache cache = cacheManager.getCache(PwrApiServerCallerImpl.PARKING_LIST_CACHE);
+        cache.put(SimpleKey.EMPTY, cached);
+
+        new PwrApiServerCallerImpl(Mockito.mock(PwrApiCaller.class), cacheManager)
+                .onSnapshot(snapshot(cached, sameContent));
+
+        assertSame(cached, cache.get(SimpleKey.EMPTY, List.class));
+    }
+
+    private static ParkingSnapshot snapshot(List<ParkingResponse> previous, List<ParkingResponse> parkings) {
+        return new ParkingSnapshot(1, LocalDateTime.now(), parkings, ParkingSnapshotDiff.diff(previous, parkings));
+    }
 }
@@ -0,0 +1,66 @@
+package pl.wrapper.parking.pwrResponseHandler.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Test
+    void concurrentCallersShouldShareOneUpstreamCall() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        Supplier<Mono<String>> upstreamCall =
+                () -> upstream.asMono().doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+
+        CompletableFuture<String> first =
+                requestCoalescer.coalesce("parks", upstreamCall).toFuture();
+        CompletableFuture<String> second =
+                requestCoalescer.coalesce("parks", upstreamCall).toFuture();
+        upstream.tryEmitValue("data");
+
+        assertEquals("data", first.join());
+        assertEquals("data", second.join());
+        assertEquals(1, subscriptions.get());
+        assertEquals(1, requestCoalescer.getUpstreamCallCount());
+        assertEquals(1, requestCoalescer.getCoalescedCallCount());
+    }
+
+    @Test
+    void callAfterCompletionShouldGoUpstreamAgain() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Supplier<Mono<String>> upstreamCall =
+                () -> Mono.just("data").doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+
+        requestCoalescer.coalesce("parks", upstreamCall).block();
+        requestCoalescer.coalesce("parks", upstreamCall).block();
+
+        assertEquals(2, subscriptions.get());
+        assertEquals(0, requestCoalescer.getCoalescedCallCount());
+    }
+
+    @Test
+    void differentKeysShouldNotBeCoalesced() {
+        Sinks.One<String> firstUpstream = Sinks.one();
+        Sinks.One<String> secondUpstream = Sinks.one();
+
+        CompletableFuture<String> first =
+                requestCoalescer.coalesce("chart:4", firstUpstream::asMono).toFuture();
+        CompletableFuture<String> second =
+                requestCoalescer.coalesce("chart:2", secondUpstream::asMono).toFuture();
+        firstUpstream.tryEmitValue("first");
+        secondUpstream.tryEmitValue("second");
+
+        assertEquals("first", first.join());
+        assertEquals("second", second.join());
+        assertEquals(2, requestCoalescer.getUpstreamCallCount());
+        assertEquals(0, requestCoalescer.getCoalescedCallCount());
+    }
+}